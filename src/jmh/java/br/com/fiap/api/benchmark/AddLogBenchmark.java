@@ -0,0 +1,74 @@
+package br.com.fiap.api.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.fiap.api.log.LogJournal.FsyncPolicy;
+import br.com.fiap.api.log.LogSummaryService;
+import br.com.fiap.api.log.LogTailBroadcaster.SlowConsumerPolicy;
+import br.com.fiap.api.log.LogWriterPipeline.OverflowPolicy;
+
+/**
+ * Custo de {@code LogSummaryService.addLog} com históricos de tamanhos diferentes,
+ * usando a configuração padrão de application.properties (sem gravação no banco).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddLogBenchmark {
+
+    @Param({ "0", "100000", "1000000" })
+    public int history;
+
+    private Path dir;
+    private LogSummaryService service;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("addlog-benchmark");
+        service = new LogSummaryService(dir.toString(), "", FsyncPolicy.INTERVAL, 1000,
+                16 * 1024 * 1024, 1440, 100_000, 10_000, false, 256, SlowConsumerPolicy.SAMPLE, 100,
+                10_000, 512, OverflowPolicy.BLOCK, false, 100,
+                new StaticListableBeanFactory().getBeanProvider(JdbcTemplate.class));
+        for (int i = 0; i < history; i++) {
+            service.addLog("INFO", "Creating user: history-" + i);
+        }
+    }
+
+    @Benchmark
+    public void addLog() {
+        service.addLog("INFO", "Creating user: bench-" + counter++);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        service.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
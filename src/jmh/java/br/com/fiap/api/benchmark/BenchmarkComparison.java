@@ -0,0 +1,59 @@
+package br.com.fiap.api.benchmark;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara dois resultados JSON do JMH (modo AverageTime: menor é melhor) e
+ * termina com código 1 se algum benchmark ficou mais lento que a tolerância.
+ * Uso: {@code BenchmarkComparison <baseline.json> <atual.json> [tolerância, ex. 0.10]}.
+ */
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, Double> baseline = read(new File(args[0]));
+        Map<String, Double> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW   %-70s %12.3f%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+            double change = (entry.getValue() - before) / before;
+            boolean regressed = change > tolerance;
+            if (regressed) regressions++;
+            System.out.printf("%-5s %-70s %12.3f -> %12.3f (%+.1f%%)%n",
+                    regressed ? "SLOW" : "OK", entry.getKey(), before, entry.getValue(), change * 100);
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed more than " + (tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    // Chave: nome do benchmark + parâmetros, ex. "AddLogBenchmark.addLog{history=100000}"
+    private static Map<String, Double> read(File file) throws Exception {
+        Map<String, Double> scores = new HashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String name = run.get("benchmark").asText();
+            name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+            JsonNode params = run.get("params");
+            if (params != null) {
+                name += params.toString().replace("\"", "");
+            }
+            scores.put(name, run.get("primaryMetric").get("score").asDouble());
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.fiap.api.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.fiap.api.dto.UserCreateDTO;
+import br.com.fiap.api.model.User;
+
+/**
+ * Jackson nos dois sentidos do CRUD de usuários: leitura do {@link UserCreateDTO}
+ * (com os {@code @JsonCreator} dos VOs) e escrita do {@link User}, com o
+ * ObjectMapper montado como o do Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    private static final String CREATE_JSON = """
+            {"clientName": "Maria Silva", "email": {"value": "maria@mail.com"}, "betMaxValue": 150.0,
+             "username": {"value": "maria"}, "password": {"value": "s3cret!"}, "userPixKey": "maria-pix"}
+            """;
+
+    private ObjectReader createReader;
+    private ObjectWriter userWriter;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        createReader = mapper.readerFor(UserCreateDTO.class);
+        userWriter = mapper.writerFor(User.class);
+        user = new User(42L, "Maria Silva", "maria@mail.com", LocalDate.of(2025, 1, 15), 150.0,
+                "maria", "$2a$10$PEHLAhyE/9sqNxkB6cup/.iOiVfdPPD8vwVmLGRKQj4AzWt1O9PsK", "maria-pix", 3L);
+    }
+
+    @Benchmark
+    public UserCreateDTO deserializeUserCreateDTO() throws Exception {
+        return createReader.readValue(CREATE_JSON);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return userWriter.writeValueAsBytes(user);
+    }
+}
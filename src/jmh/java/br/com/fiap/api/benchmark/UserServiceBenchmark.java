@@ -0,0 +1,108 @@
+package br.com.fiap.api.benchmark;
+
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.fiap.api.ApiApplication;
+import br.com.fiap.api.dto.UserCreateDTO;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import br.com.fiap.api.service.UserService;
+import br.com.fiap.api.vo.EmailVO;
+import br.com.fiap.api.vo.PasswordVO;
+import br.com.fiap.api.vo.UsernameVO;
+
+/**
+ * {@code UserService.createUser} e {@code searchForId} com a aplicação inteira
+ * sobre o H2 em memória. {@code cacheEntries = 0} desliga o cache de usuários
+ * para medir a ida ao banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final int PRELOADED_USERS = 1_000;
+
+    @Param({ "0", "10000" })
+    public int cacheEntries;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private final AtomicLong sequence = new AtomicLong();
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Argumentos de linha de comando, para prevalecer sobre o application.properties
+        context = new SpringApplicationBuilder(ApiApplication.class).run(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--logs.dir=" + Files.createTempDirectory("user-service-benchmark"),
+                "--users.cache.max-entries=" + cacheEntries);
+        userService = context.getBean(UserService.class);
+        // Carga direta pelo repositório com um hash fixo, para não pagar BCrypt no setup
+        UserRepository repository = context.getBean(UserRepository.class);
+        String hash = context.getBean(PasswordEncoder.class).encode("s3cret!");
+        ids = new long[PRELOADED_USERS];
+        for (int i = 0; i < PRELOADED_USERS; i++) {
+            long n = sequence.incrementAndGet();
+            User user = new User();
+            user.setClientName("Client " + n);
+            user.setUsername("bench-" + n);
+            user.setPassword(hash);
+            user.setBetMaxValue(100.0);
+            ids[i] = repository.save(user).getId_user();
+        }
+    }
+
+    @Benchmark
+    public User createUser() {
+        return userService.createUser(newUser());
+    }
+
+    @Benchmark
+    public User searchForId() {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return userService.searchForId(id).orElseThrow();
+    }
+
+    private UserCreateDTO newUser() {
+        long n = sequence.incrementAndGet();
+        UserCreateDTO dto = new UserCreateDTO();
+        dto.setClientName("Client " + n);
+        dto.setEmail(new EmailVO("client" + n + "@mail.com"));
+        dto.setBetMaxValue(100.0);
+        dto.setUsername(new UsernameVO("bench-" + n));
+        dto.setPassword(new PasswordVO("s3cret!"));
+        return dto;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,282 @@
+package br.com.fiap.api.bet;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.api.dto.BetAuthorizationResponse;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.service.UserCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Autoriza apostas contra o {@code betMaxValue} do usuário: o valor é aceito se o
+ * gasto na janela configurada mais o valor pedido não passar do limite. A decisão
+ * usa só memória ({@link UserCache} e {@link SpendingCounters}); os valores aceitos
+ * vão para uma fila e são gravados em lote na tabela {@code bet_spending}, de onde
+ * os contadores são reconstruídos ao iniciar. Uma queda perde no máximo o que ainda
+ * estava na fila (um intervalo de flush).
+ * <p>
+ * Com várias instâncias, cada uma lê de tempos em tempos ({@link #reconcile()}) as
+ * linhas que as outras gravaram e soma aos seus contadores. Entre a aceitação numa
+ * instância e a leitura nas outras (flush + reconciliação) o usuário ainda pode passar
+ * do limite; para garantia estrita, todas as apostas de um usuário devem ir para a
+ * mesma instância (roteamento fixo por usuário). O limite vem do {@link UserCache}:
+ * sem o canal de invalidação, uma alteração feita em outra instância leva até o TTL.
+ */
+@Service
+public class BetLimitService {
+    private static final Logger log = LoggerFactory.getLogger(BetLimitService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO bet_spending (user_id, amount_cents, spent_at, instance_id) VALUES (?, ?, ?, ?)";
+    private static final String RECONCILE_SQL = "SELECT id, user_id, amount_cents, spent_at, instance_id"
+            + " FROM bet_spending WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final UserCache userCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final SpendingCounters counters;
+    private final int flushBatchSize;
+    private final Clock clock;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long gapTimeoutMillis;
+
+    // Ids já lidos do banco: todos até seenUpTo, e os acima dele que já chegaram
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private long seenUpTo;
+    private final TreeSet<Long> seenAbove = new TreeSet<>();
+    // Desde quando falta o id seenUpTo + 1 (transação ainda aberta ou desfeita)
+    private long gapSince = -1;
+
+    private final ConcurrentLinkedDeque<Spend> pending = new ConcurrentLinkedDeque<>();
+    private final LongAdder pendingCount = new LongAdder();
+    private final LongAdder approved = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder reconciled = new LongAdder();
+
+    @Autowired
+    public BetLimitService(
+            UserCache userCache,
+            JdbcTemplate jdbcTemplate,
+            @Value("${bets.window-minutes:1440}") long windowMinutes,
+            @Value("${bets.window-buckets:24}") int windowBuckets,
+            @Value("${bets.lock-stripes:256}") int lockStripes,
+            @Value("${bets.flush-batch-size:1000}") int flushBatchSize,
+            @Value("${bets.reconcile-gap-timeout-ms:60000}") long gapTimeoutMillis) {
+        this(userCache, jdbcTemplate,
+                new SpendingCounters(Duration.ofMinutes(windowMinutes), windowBuckets, lockStripes),
+                flushBatchSize, gapTimeoutMillis, Clock.systemUTC());
+    }
+
+    BetLimitService(UserCache userCache, JdbcTemplate jdbcTemplate, SpendingCounters counters,
+            int flushBatchSize, long gapTimeoutMillis, Clock clock) {
+        this.userCache = userCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.counters = counters;
+        this.flushBatchSize = flushBatchSize;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return a decisão, ou vazio se o usuário não existe
+     * @throws IllegalArgumentException se o valor não for positivo
+     */
+    public Optional<BetAuthorizationResponse> authorize(Long userId, double amount) {
+        long amountCents = toCents(amount);
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Bet amount must be positive");
+        }
+        Optional<User> user = userCache.findById(userId);
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+        // Sem limite cadastrado nenhuma aposta é autorizada
+        long limitCents = user.get().getBetMaxValue() != null ? toCents(user.get().getBetMaxValue()) : 0;
+        long now = clock.millis();
+
+        SpendingCounters.Decision decision = counters.tryAdd(userId, limitCents, amountCents, now);
+        if (decision.approved()) {
+            approved.increment();
+            pending.offer(new Spend(userId, amountCents, now));
+            pendingCount.increment();
+        } else {
+            denied.increment();
+        }
+        return Optional.of(new BetAuthorizationResponse(userId, decision.approved(), amount,
+                fromCents(limitCents), fromCents(decision.spentCents()),
+                fromCents(Math.max(0, limitCents - decision.spentCents()))));
+    }
+
+    /** Grava os valores aceitos pendentes em lotes; em caso de erro, devolve o lote à fila. */
+    @Scheduled(fixedDelayString = "${bets.flush-interval-ms:1000}")
+    public void flush() {
+        List<Spend> batch = new ArrayList<>(flushBatchSize);
+        Spend spend;
+        while (true) {
+            batch.clear();
+            while (batch.size() < flushBatchSize && (spend = pending.poll()) != null) {
+                batch.add(spend);
+                pendingCount.decrement();
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, s) -> {
+                    ps.setLong(1, s.userId());
+                    ps.setLong(2, s.amountCents());
+                    ps.setTimestamp(3, Timestamp.valueOf(toDateTime(s.atMillis())));
+                    ps.setString(4, instanceId);
+                });
+                flushed.add(batch.size());
+            } catch (RuntimeException e) {
+                log.error("Error flushing {} bet spending rows, will retry: {}", batch.size(), e.getMessage());
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    pending.offerFirst(batch.get(i));
+                }
+                pendingCount.add(batch.size());
+                break;
+            }
+        }
+        counters.evictIdle(clock.millis());
+    }
+
+    /** Reconstrói os contadores com o que foi gasto dentro da janela. */
+    @PostConstruct
+    public void rebuild() {
+        long now = clock.millis();
+        LocalDateTime since = toDateTime(now - counters.getWindow().toMillis());
+        // Antes da leitura: o que for gravado durante ela vem na próxima reconciliação
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM bet_spending", Long.class);
+        long[] rows = {0};
+        jdbcTemplate.query("SELECT user_id, amount_cents, spent_at FROM bet_spending WHERE spent_at >= ? AND id <= ?",
+                rs -> {
+                    counters.record(rs.getLong("user_id"), rs.getLong("amount_cents"), toMillis(rs.getTimestamp("spent_at")), now);
+                    rows[0]++;
+                }, Timestamp.valueOf(since), maxId == null ? 0 : maxId);
+        reconcileLock.lock();
+        try {
+            seenUpTo = maxId == null ? 0 : maxId;
+            seenAbove.clear();
+            gapSince = -1;
+        } finally {
+            reconcileLock.unlock();
+        }
+        log.info("Bet limit counters rebuilt from {} spending rows", rows[0]);
+    }
+
+    /**
+     * Soma aos contadores os valores que outras instâncias gravaram desde a última
+     * leitura. Ids que faltam (transação ainda não confirmada) são procurados de novo
+     * até {@code bets.reconcile-gap-timeout-ms}; depois disso são tidos como desfeitos.
+     */
+    @Scheduled(fixedDelayString = "${bets.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            long now = clock.millis();
+            long after = seenUpTo;
+            int read;
+            do {
+                long[] last = {after};
+                read = jdbcTemplate.query(RECONCILE_SQL, (rs, rowNum) -> {
+                    long id = rs.getLong("id");
+                    last[0] = id;
+                    if (seenAbove.add(id) && !instanceId.equals(rs.getString("instance_id"))) {
+                        counters.record(rs.getLong("user_id"), rs.getLong("amount_cents"),
+                                toMillis(rs.getTimestamp("spent_at")), now);
+                        reconciled.increment();
+                    }
+                    return id;
+                }, after, flushBatchSize).size();
+                after = last[0];
+            } while (read == flushBatchSize);
+            advance(now);
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void advance(long now) {
+        while (!seenAbove.isEmpty()) {
+            if (seenAbove.first() == seenUpTo + 1) {
+                seenUpTo = seenAbove.pollFirst();
+                gapSince = -1;
+            } else if (gapSince < 0) {
+                gapSince = now;
+                return;
+            } else if (now - gapSince >= gapTimeoutMillis) {
+                // Id nunca confirmado: segue a partir do próximo que existe
+                seenUpTo = seenAbove.first() - 1;
+            } else {
+                return;
+            }
+        }
+        gapSince = -1;
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    public double spent(Long userId) {
+        return fromCents(counters.spent(userId, clock.millis()));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("windowMinutes", counters.getWindow().toMinutes());
+        stats.put("activeUsers", counters.size());
+        stats.put("approved", approved.sum());
+        stats.put("denied", denied.sum());
+        stats.put("pendingFlush", pendingCount.sum());
+        stats.put("flushed", flushed.sum());
+        stats.put("reconciled", reconciled.sum());
+        return stats;
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+
+    private static long toMillis(Timestamp timestamp) {
+        return timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // Horários gravados em UTC, como os contadores
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private record Spend(long userId, long amountCents, long atMillis) {
+    }
+}
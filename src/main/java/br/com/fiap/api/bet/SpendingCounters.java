@@ -0,0 +1,163 @@
+package br.com.fiap.api.bet;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gasto por usuário numa janela deslizante, em memória. A janela é dividida em
+ * {@code buckets} intervalos em buffer circular, com o total mantido a cada
+ * operação, então checar e somar custa O(1) (mais a expiração dos intervalos
+ * vencidos). Usuários são protegidos por locks em faixas (striping): só
+ * operações do mesmo usuário, ou de usuários na mesma faixa, disputam o lock.
+ */
+public class SpendingCounters {
+
+    public record Decision(boolean approved, long spentCents) {
+    }
+
+    private final int buckets;
+    private final long bucketMillis;
+    private final ReentrantLock[] stripes;
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+
+    public SpendingCounters(Duration window, int buckets, int stripes) {
+        if (buckets <= 0 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Window must have at least one millisecond per bucket");
+        }
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a positive power of two");
+        }
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Soma {@code amountCents} ao gasto do usuário se o total na janela não passar
+     * de {@code limitCents}. Checagem e soma são atômicas para o usuário.
+     */
+    public Decision tryAdd(long userId, long limitCents, long amountCents, long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, bucketMillis);
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            Window window = windows.computeIfAbsent(userId, id -> new Window(buckets));
+            long spent = window.roll(bucket);
+            if (spent + amountCents > limitCents) {
+                return new Decision(false, spent);
+            }
+            window.add(bucket, amountCents);
+            return new Decision(true, window.total);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Soma um gasto já aceito (reconstrução a partir do banco); ignora o que já saiu da janela. */
+    public void record(long userId, long amountCents, long atMillis, long nowMillis) {
+        long bucket = Math.floorDiv(atMillis, bucketMillis);
+        long current = Math.floorDiv(nowMillis, bucketMillis);
+        if (bucket <= current - buckets || bucket > current) {
+            return;
+        }
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            Window window = windows.computeIfAbsent(userId, id -> new Window(buckets));
+            window.roll(current);
+            window.add(bucket, amountCents);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long spent(long userId, long nowMillis) {
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            Window window = windows.get(userId);
+            return window == null ? 0 : window.roll(Math.floorDiv(nowMillis, bucketMillis));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Remove os usuários sem gasto na janela; devolve quantos foram removidos. */
+    public int evictIdle(long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, bucketMillis);
+        int evicted = 0;
+        for (Long userId : windows.keySet()) {
+            ReentrantLock lock = stripe(userId);
+            lock.lock();
+            try {
+                Window window = windows.get(userId);
+                if (window != null && window.roll(bucket) == 0) {
+                    windows.remove(userId);
+                    evicted++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    public Duration getWindow() {
+        return Duration.ofMillis(bucketMillis * buckets);
+    }
+
+    private ReentrantLock stripe(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    /** Buffer circular de um usuário; só acessado com o lock da faixa. */
+    private static final class Window {
+        private final long[] bucketIds;
+        private final long[] amounts;
+        private long total;
+        private long lastRolled = Long.MIN_VALUE;
+
+        Window(int buckets) {
+            bucketIds = new long[buckets];
+            amounts = new long[buckets];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+        }
+
+        long roll(long current) {
+            if (current != lastRolled) {
+                long oldestValid = current - bucketIds.length + 1;
+                for (int i = 0; i < bucketIds.length; i++) {
+                    if (bucketIds[i] != Long.MIN_VALUE && bucketIds[i] < oldestValid) {
+                        total -= amounts[i];
+                        amounts[i] = 0;
+                        bucketIds[i] = Long.MIN_VALUE;
+                    }
+                }
+                lastRolled = current;
+            }
+            return total;
+        }
+
+        void add(long bucket, long amount) {
+            int slot = (int) Math.floorMod(bucket, (long) bucketIds.length);
+            if (bucketIds[slot] != bucket) {
+                total -= amounts[slot];
+                amounts[slot] = 0;
+                bucketIds[slot] = bucket;
+            }
+            amounts[slot] += amount;
+            total += amount;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.fiap.api.config;
+
+import java.util.List;
+
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * IP do cliente atrás de proxies confiáveis (balanceador, ingress). O
+ * {@code X-Forwarded-For} só é considerado quando a conexão vem de um proxy
+ * confiável, e é lido da direita para a esquerda: o primeiro endereço que não é de
+ * proxy confiável é o cliente. Valores à esquerda dele podem ter sido forjados pelo
+ * próprio cliente e são ignorados.
+ */
+public class ClientIpResolver {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    /** @param trustedProxies endereços ou faixas CIDR (ex.: {@code 10.0.0.0/8}) */
+    public ClientIpResolver(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        if (!isTrusted(client)) {
+            return client;
+        }
+        String forwarded = request.getHeader(FORWARDED_FOR);
+        if (forwarded == null) {
+            return client;
+        }
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            // Valor que não é IP: para no último proxy confiável
+            if (!isIpLiteral(hop)) {
+                return client;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                return hop;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        if (!isIpLiteral(address)) {
+            return false;
+        }
+        try {
+            for (IpAddressMatcher proxy : trustedProxies) {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // IPv6 malformado
+        }
+        return false;
+    }
+
+    // Só literais IPv4/IPv6: um nome de host no cabeçalho não pode disparar consulta DNS
+    static boolean isIpLiteral(String value) {
+        if (value == null || value.isEmpty() || value.length() > 45) {
+            return false;
+        }
+        if (value.indexOf(':') >= 0) {
+            // IPv6 (inválido vira erro de parse, nunca consulta DNS)
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c != ':' && c != '.' && Character.digit(c, 16) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        String[] octets = value.split("\\.", -1);
+        if (octets.length != 4) {
+            return false;
+        }
+        for (String octet : octets) {
+            if (octet.isEmpty() || octet.length() > 3 || !octet.chars().allMatch(c -> c >= '0' && c <= '9')
+                    || Integer.parseInt(octet) > 255) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
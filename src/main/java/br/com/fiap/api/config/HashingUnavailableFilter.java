@@ -0,0 +1,39 @@
+package br.com.fiap.api.config;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import br.com.fiap.api.exception.HashingUnavailableException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Responde o pool de hashing saturado durante a autenticação (HTTP Basic, que roda
+ * fora do DispatcherServlet) com o mesmo 503 e Retry-After do
+ * {@code GlobalExceptionHandler}, em vez do 500 de uma exceção não tratada.
+ */
+public class HashingUnavailableFilter extends OncePerRequestFilter {
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public HashingUnavailableFilter(HandlerExceptionResolver handlerExceptionResolver) {
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (HashingUnavailableException e) {
+            if (response.isCommitted()
+                    || handlerExceptionResolver.resolveException(request, response, null, e) == null) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.fiap.api.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import br.com.fiap.api.exception.DatabaseBusyException;
+
+/**
+ * Limita quantas threads disputam o pool de conexões ao mesmo tempo. Com virtual
+ * threads o Tomcat não tem mais teto de threads, então sem este limite milhares de
+ * requisições ficariam paradas no pool até o timeout do Hikari. Até {@code permits}
+ * threads (o tamanho do pool) seguem para o pool; outras {@code maxWaiting} esperam
+ * em fila justa por até {@code maxWaitMillis}; além disso a chamada falha na hora
+ * com {@link DatabaseBusyException} (503).
+ */
+public class JdbcAdmissionDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final int maxWaiting;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public JdbcAdmissionDataSource(DataSource target, int permits, int maxWaiting, long maxWaitMillis,
+            long retryAfterSeconds) {
+        super(target);
+        if (permits <= 0 || maxWaiting < 0) {
+            throw new IllegalArgumentException("Permits must be positive and max waiting non-negative");
+        }
+        this.permits = new Semaphore(permits, true);
+        this.maxPermits = permits;
+        this.maxWaiting = maxWaiting;
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        admit();
+        return releasingOnClose(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        admit();
+        return releasingOnClose(() -> super.getConnection(username, password));
+    }
+
+    private void admit() throws SQLException {
+        try {
+            // tryAcquire com timeout respeita a fila justa (o tryAcquire() sem argumentos fura a fila)
+            if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                throw busy();
+            }
+            try {
+                if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                    throw busy();
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+    }
+
+    private DatabaseBusyException busy() {
+        rejected.increment();
+        return new DatabaseBusyException("Database connection limit reached, try again later.", retryAfterSeconds);
+    }
+
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+
+    /** Devolve a vaga quando a conexão for fechada (uma única vez, mesmo com close() repetido). */
+    private Connection releasingOnClose(ConnectionSource source) throws SQLException {
+        Connection connection;
+        try {
+            connection = source.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getInUse() {
+        return maxPermits - permits.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("permits", maxPermits);
+        stats.put("inUse", getInUse());
+        stats.put("waiting", getWaiting());
+        stats.put("maxWaiting", maxWaiting);
+        stats.put("rejected", getRejectedCount());
+        return stats;
+    }
+}
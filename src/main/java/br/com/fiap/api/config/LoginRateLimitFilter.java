@@ -0,0 +1,172 @@
+package br.com.fiap.api.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.api.exception.TooManyRequestsException;
+import br.com.fiap.api.service.LoginRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica o {@link LoginRateLimiter} ao login ({@code POST /auth/login}) e à troca de
+ * senha ({@code PATCH /auth/{username}/password}) antes dos filtros de autenticação:
+ * uma tentativa acima do limite recebe 429 sem busca do usuário nem BCrypt, nem mesmo
+ * o do HTTP Basic que a troca de senha exige.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String AUTH_PREFIX = "/auth/";
+    private static final String PASSWORD_SUFFIX = "/password";
+    // O username do login vem do corpo; corpos maiores seguem sem ser lidos aqui (só o limite por IP)
+    private static final int MAX_LOGIN_BODY = 8 * 1024;
+
+    private final LoginRateLimiter limiter;
+    private final ClientIpResolver clientIpResolver;
+    private final ObjectMapper objectMapper;
+
+    public LoginRateLimitFilter(LoginRateLimiter limiter, ClientIpResolver clientIpResolver, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.clientIpResolver = clientIpResolver;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        HttpServletRequest forwarded = request;
+        String username;
+        if ("POST".equals(request.getMethod()) && LOGIN_PATH.equals(path)) {
+            BufferedBodyRequest buffered = new BufferedBodyRequest(request);
+            forwarded = buffered;
+            username = buffered.username();
+        } else if ("PATCH".equals(request.getMethod()) && path.startsWith(AUTH_PREFIX) && path.endsWith(PASSWORD_SUFFIX)
+                && path.length() > AUTH_PREFIX.length() + PASSWORD_SUFFIX.length()) {
+            String segment = path.substring(AUTH_PREFIX.length(), path.length() - PASSWORD_SUFFIX.length());
+            if (segment.indexOf('/') >= 0) {
+                chain.doFilter(request, response);
+                return;
+            }
+            username = UriUtils.decode(segment, StandardCharsets.UTF_8);
+        } else {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            limiter.check(username, clientIpResolver.resolve(request));
+        } catch (TooManyRequestsException e) {
+            // Mesmo corpo do GlobalExceptionHandler, que não alcança os filtros
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("timestamp", LocalDateTime.now());
+            body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+            body.put("error", "Too Many Requests");
+            body.put("message", e.getMessage());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), body);
+            return;
+        }
+        chain.doFilter(forwarded, response);
+    }
+
+    /** Lê o início do corpo para achar o username e devolve o corpo inteiro ao controller. */
+    private final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] head;
+        private final boolean complete;
+        private ServletInputStream stream;
+
+        BufferedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            byte[] read = request.getInputStream().readNBytes(MAX_LOGIN_BODY + 1);
+            this.complete = read.length <= MAX_LOGIN_BODY;
+            this.head = read;
+        }
+
+        String username() {
+            if (!complete || head.length == 0) {
+                return null;
+            }
+            try {
+                JsonNode node = objectMapper.readTree(head).path("username");
+                return node.isTextual() ? node.asText() : null;
+            } catch (IOException e) {
+                // Corpo inválido: o controller responde o erro
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = bodyStream();
+            }
+            return stream;
+        }
+
+        private ServletInputStream bodyStream() throws IOException {
+            InputStream body = complete ? new ByteArrayInputStream(head)
+                    : new SequenceInputStream(new ByteArrayInputStream(head), super.getInputStream());
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return body.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return body.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return body.available() == 0;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
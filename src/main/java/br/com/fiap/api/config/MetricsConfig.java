@@ -0,0 +1,29 @@
+package br.com.fiap.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+@Configuration
+public class MetricsConfig {
+
+    // Habilita @Timed (ex.: UserService) com tags de classe e método
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Limita os valores distintos da tag {@code uri} das requisições HTTP. A tag já
+     * usa o padrão da rota ({@code /api/v1/users/{id}}), mas isto protege contra
+     * uma explosão de séries se algum caminho escapar do mapeamento.
+     */
+    @Bean
+    public MeterFilter httpUriCardinalityLimit(@Value("${metrics.http.max-uri-tags:100}") int maxUriTags) {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", maxUriTags, MeterFilter.deny());
+    }
+}
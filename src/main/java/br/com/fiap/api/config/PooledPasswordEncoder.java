@@ -0,0 +1,30 @@
+package br.com.fiap.api.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.fiap.api.service.PasswordHashingService;
+
+/**
+ * {@link PasswordEncoder} do Spring Security que roda o BCrypt no pool do
+ * {@link PasswordHashingService}. Assim o HTTP Basic divide o mesmo limite de threads
+ * do login e, com o pool saturado, recebe 503 com Retry-After
+ * ({@link HashingUnavailableFilter}) em vez de ocupar a thread da requisição.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordHashingService passwordHashingService;
+
+    public PooledPasswordEncoder(PasswordHashingService passwordHashingService) {
+        this.passwordHashingService = passwordHashingService;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return passwordHashingService.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return passwordHashingService.matches(rawPassword, encodedPassword);
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.fiap.api.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Réplicas de leitura, ligadas com {@code db.replicas.urls}. O DataSource da aplicação
+ * passa a ser um {@link ReadWriteRoutingDataSource}: transações {@code readOnly} nas
+ * réplicas, o resto no primário; {@link ReadYourWritesFilter} manda ao primário as
+ * leituras de quem acabou de escrever. Sem URLs nada muda. A decisão é feita ao
+ * subir, e não com {@code @Conditional}, para valer também no modo AOT.
+ */
+@Configuration
+public class ReadReplicaConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    // static: o post-processor precisa existir antes dos demais beans
+    @Bean
+    public static BeanPostProcessor readReplicaPostProcessor(Environment environment) {
+        return new RoutingPostProcessor(environment);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(Environment environment) {
+        return new ReadYourWritesFilter(!replicaUrls(environment).isEmpty(),
+                environment.getProperty("db.replicas.sticky-ms", Long.class, 2000L),
+                environment.getProperty("db.replicas.sticky-max-clients", Integer.class, 100_000),
+                Set.copyOf(StringUtils.commaDelimitedListToSet(
+                        environment.getProperty("db.replicas.non-writing-paths", ""))));
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            if (dataSource.getIfAvailable() instanceof ReadWriteRoutingDataSource routing) {
+                ReadReplicaDataSource replicas = routing.getReplicas();
+                for (int i = 0; i < replicas.size(); i++) {
+                    int replica = i;
+                    Gauge.builder("db.replicas.in.use", replicas, r -> r.getInUse(replica))
+                            .tag("replica", String.valueOf(replica)).register(registry);
+                    FunctionCounter.builder("db.replicas.reads", replicas, r -> r.getReads(replica))
+                            .tag("replica", String.valueOf(replica)).register(registry);
+                }
+                FunctionCounter.builder("db.replicas.sticky.reads", replicas, ReadReplicaDataSource::getStickyReads)
+                        .register(registry);
+                FunctionCounter.builder("db.replicas.primary.fallbacks", replicas,
+                        ReadReplicaDataSource::getPrimaryFallbacks).register(registry);
+                FunctionCounter.builder("db.replicas.failures", replicas, ReadReplicaDataSource::getFailures)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static List<String> replicaUrls(Environment environment) {
+        return List.of(StringUtils.tokenizeToStringArray(environment.getProperty("db.replicas.urls", ""), ","));
+    }
+
+    /** Envolve o DataSource depois dos demais post-processors (ex.: o limite de acesso com virtual threads). */
+    private static final class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        RoutingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)
+                    || bean instanceof ReadWriteRoutingDataSource) {
+                return bean;
+            }
+            List<String> urls = replicaUrls(environment);
+            if (urls.isEmpty()) {
+                return bean;
+            }
+            ReadReplicaDataSource.Strategy strategy = ReadReplicaDataSource.Strategy.valueOf(
+                    environment.getProperty("db.replicas.strategy", "ROUND_ROBIN").trim().toUpperCase());
+            List<DataSource> replicas = new ArrayList<>(urls.size());
+            for (int i = 0; i < urls.size(); i++) {
+                replicas.add(replica(i, urls.get(i), primary));
+            }
+            return new ReadWriteRoutingDataSource(primary, new ReadReplicaDataSource(primary, replicas, strategy));
+        }
+
+        private DataSource replica(int index, String url, DataSource primary) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + index);
+            pool.setJdbcUrl(url);
+            pool.setDriverClassName(environment.getProperty("spring.datasource.driverClassName"));
+            // Mesmas credenciais do primário, salvo configuração própria
+            pool.setUsername(environment.getProperty("db.replicas.username",
+                    environment.getProperty("spring.datasource.username")));
+            pool.setPassword(environment.getProperty("db.replicas.password",
+                    environment.getProperty("spring.datasource.password")));
+            pool.setReadOnly(true);
+            int poolSize = environment.getProperty("db.replicas.pool-size", Integer.class, HIKARI_DEFAULT_POOL_SIZE);
+            pool.setMaximumPoolSize(poolSize);
+            if (VirtualThreadConfig.admissionOf(primary) != null) {
+                // Com virtual threads as réplicas têm o mesmo limite de acesso que o primário
+                return new JdbcAdmissionDataSource(pool, poolSize,
+                        environment.getProperty("db.admission.max-waiting", Integer.class, 200),
+                        environment.getProperty("db.admission.max-wait-ms", Long.class, 2000L),
+                        environment.getProperty("db.admission.retry-after-seconds", Long.class, 1L));
+            }
+            return pool;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
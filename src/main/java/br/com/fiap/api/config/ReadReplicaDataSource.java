@@ -0,0 +1,174 @@
+package br.com.fiap.api.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Conexões das transações somente leitura (ver {@link ReadWriteRoutingDataSource}).
+ * Escolhe a réplica em rodízio ({@code ROUND_ROBIN}) ou a com menos conexões em uso
+ * ({@code LEAST_BUSY}), uma vez por requisição ({@link ReplicaRoutingContext}).
+ * Vai ao primário quando o cliente escreveu há pouco ou quando nenhuma réplica
+ * consegue entregar uma conexão.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_BUSY
+    }
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Strategy strategy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicIntegerArray inUse;
+    private final LongAdder[] reads;
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+
+    public ReadReplicaDataSource(DataSource primary, List<? extends DataSource> replicas, Strategy strategy) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.inUse = new AtomicIntegerArray(replicas.size());
+        this.reads = new LongAdder[replicas.size()];
+        for (int i = 0; i < reads.length; i++) {
+            reads[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ReplicaRoutingContext context = ReplicaRoutingContext.current();
+        if (context != null && context.isPrimaryRequired()) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        int first = context != null ? context.replica(this::choose) : choose();
+        SQLException failure = null;
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            int replica = (first + attempt) % replicas.size();
+            try {
+                return borrow(replica);
+            } catch (SQLException e) {
+                failures.increment();
+                log.warn("Read replica {} unavailable: {}", replica, e.getMessage());
+                failure = failure == null ? e : failure;
+            }
+        }
+        // Réplicas fora: a leitura ainda pode ser atendida pelo primário
+        primaryReads.increment();
+        try {
+            return primary.getConnection();
+        } catch (SQLException e) {
+            e.addSuppressed(failure);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Replicas use the credentials of their own pools");
+    }
+
+    int choose() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        if (strategy == Strategy.ROUND_ROBIN) {
+            return start;
+        }
+        // Empate: o rodízio decide, para não mandar tudo à primeira réplica quando estão ociosas
+        int best = start;
+        for (int offset = 1; offset < replicas.size(); offset++) {
+            int candidate = (start + offset) % replicas.size();
+            if (inUse.get(candidate) < inUse.get(best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /** Conta a conexão como em uso na réplica até ser fechada (uma única vez, mesmo com close() repetido). */
+    private Connection borrow(int replica) throws SQLException {
+        inUse.incrementAndGet(replica);
+        Connection connection;
+        try {
+            connection = replicas.get(replica).getConnection();
+        } catch (SQLException | RuntimeException e) {
+            inUse.decrementAndGet(replica);
+            throw e;
+        }
+        reads[replica].increment();
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            inUse.decrementAndGet(replica);
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public int size() {
+        return replicas.size();
+    }
+
+    public int getInUse(int replica) {
+        return inUse.get(replica);
+    }
+
+    public long getReads(int replica) {
+        return reads[replica].sum();
+    }
+
+    public long getStickyReads() {
+        return stickyReads.sum();
+    }
+
+    public long getPrimaryFallbacks() {
+        return primaryReads.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /** Fecha os pools das réplicas; o primário é fechado por quem o criou. */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica.isWrapperFor(HikariDataSource.class)) {
+                replica.unwrap(HikariDataSource.class).close();
+            }
+        }
+    }
+}
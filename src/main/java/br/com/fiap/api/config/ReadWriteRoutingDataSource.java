@@ -0,0 +1,40 @@
+package br.com.fiap.api.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * DataSource da aplicação com réplicas de leitura configuradas. A conexão real só é
+ * obtida no primeiro comando: nas transações {@code readOnly} ela vem das réplicas
+ * ({@link ReadReplicaDataSource}); nas demais, e fora de transação, do primário.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final ReadReplicaDataSource replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReadReplicaDataSource replicas) {
+        super(primary);
+        setReadOnlyDataSource(replicas);
+        this.replicas = replicas;
+    }
+
+    public ReadReplicaDataSource getReplicas() {
+        return replicas;
+    }
+
+    // Substitui o close() do pool primário como método de destruição do bean
+    @Override
+    public void close() throws Exception {
+        try {
+            replicas.close();
+        } finally {
+            DataSource primary = obtainTargetDataSource();
+            if (primary.isWrapperFor(HikariDataSource.class)) {
+                primary.unwrap(HikariDataSource.class).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.fiap.api.config;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Leia-suas-escritas com réplicas: requisições que escrevem (métodos diferentes de
+ * GET/HEAD/OPTIONS, fora {@code nonWritingPaths}) leem do primário, e as leituras do
+ * mesmo cliente (usuário autenticado ou, sem login, o IP) também, por
+ * {@code stickyMillis} depois da última escrita, tempo para as réplicas alcançarem.
+ * Roda depois do filtro do Spring Security, que já identificou o usuário.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final boolean enabled;
+    private final long stickyNanos;
+    private final int maxClients;
+    private final Set<String> nonWritingPaths;
+    private final LongSupplier nanoClock;
+    // Cliente -> instante (nanoTime) da última escrita
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(boolean enabled, long stickyMillis, int maxClients, Set<String> nonWritingPaths) {
+        this(enabled, stickyMillis, maxClients, nonWritingPaths, System::nanoTime);
+    }
+
+    ReadYourWritesFilter(boolean enabled, long stickyMillis, int maxClients, Set<String> nonWritingPaths,
+            LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMillis);
+        this.maxClients = maxClients;
+        this.nonWritingPaths = Set.copyOf(nonWritingPaths);
+        this.nanoClock = nanoClock;
+    }
+
+    // Sem réplicas não há o que rotear
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientKey(request);
+        boolean write = !SAFE_METHODS.contains(request.getMethod())
+                && !nonWritingPaths.contains(request.getRequestURI());
+        if (write) {
+            // Já no início: leituras paralelas do mesmo cliente não pegam réplica atrasada
+            recordWrite(client);
+        }
+        ReplicaRoutingContext.open(write || wroteRecently(client));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.close();
+            if (write) {
+                // A janela conta a partir do commit
+                recordWrite(client);
+            }
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    boolean wroteRecently(String client) {
+        Long last = lastWrites.get(client);
+        return last != null && nanoClock.getAsLong() - last < stickyNanos;
+    }
+
+    void recordWrite(String client) {
+        long now = nanoClock.getAsLong();
+        lastWrites.put(client, now);
+        if (lastWrites.size() > maxClients) {
+            // Só os que escreveram dentro da janela ainda importam
+            lastWrites.values().removeIf(last -> now - last >= stickyNanos);
+        }
+    }
+
+    int trackedClients() {
+        return lastWrites.size();
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.fiap.api.config;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Roteamento das leituras da requisição atual, aberto pelo {@link ReadYourWritesFilter}.
+ * Diz se as leituras devem ir ao primário (escrita do mesmo cliente há pouco) e
+ * guarda a réplica escolhida na primeira leitura: as seguintes vão à mesma, então
+ * duas consultas da mesma requisição nunca voltam no tempo (ex.: o contador do
+ * ETag e a página que ele acompanha).
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<ReplicaRoutingContext> CURRENT = new ThreadLocal<>();
+    private static final int NOT_CHOSEN = -1;
+
+    private final boolean primaryRequired;
+    // volatile: o corpo em streaming roda em outra thread (ver runWith)
+    private volatile int replica = NOT_CHOSEN;
+
+    private ReplicaRoutingContext(boolean primaryRequired) {
+        this.primaryRequired = primaryRequired;
+    }
+
+    /** Contexto da thread atual; {@code null} fora de uma requisição. */
+    public static ReplicaRoutingContext current() {
+        return CURRENT.get();
+    }
+
+    static ReplicaRoutingContext open(boolean primaryRequired) {
+        ReplicaRoutingContext context = new ReplicaRoutingContext(primaryRequired);
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Executa {@code task} com {@code context} nesta thread; para trabalho da requisição
+     * que continua em outra thread (ex.: {@code StreamingResponseBody}).
+     */
+    public static <E extends Exception> void runWith(ReplicaRoutingContext context, Task<E> task) throws E {
+        ReplicaRoutingContext previous = CURRENT.get();
+        CURRENT.set(context);
+        try {
+            task.run();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public boolean isPrimaryRequired() {
+        return primaryRequired;
+    }
+
+    int replica(IntSupplier chooser) {
+        int chosen = replica;
+        if (chosen == NOT_CHOSEN) {
+            chosen = chooser.getAsInt();
+            replica = chosen;
+        }
+        return chosen;
+    }
+
+    @FunctionalInterface
+    public interface Task<E extends Exception> {
+        void run() throws E;
+    }
+}
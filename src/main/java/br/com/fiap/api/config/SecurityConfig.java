@@ -1,31 +1,73 @@
 package br.com.fiap.api.config;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.api.service.LoginRateLimiter;
+import br.com.fiap.api.service.PasswordHashingService;
+import br.com.fiap.api.service.UserCache;
 
 @Configuration
 public class SecurityConfig {
 
+    // BCrypt em si, usado só dentro do pool do PasswordHashingService
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder bcryptPasswordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    // O que o Spring Security (HTTP Basic) e os demais usam: o hash roda no pool limitado
+    @Bean
+    @Primary
+    public PasswordEncoder passwordEncoder(PasswordHashingService passwordHashingService) {
+        return new PooledPasswordEncoder(passwordHashingService);
+    }
+
+    // X-Forwarded-For só vale vindo destes proxies (balanceador, ingress)
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public ClientIpResolver clientIpResolver(@Value("${auth.rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+        return new ClientIpResolver(trustedProxies);
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService,
+            LoginRateLimiter loginRateLimiter, ClientIpResolver clientIpResolver, ObjectMapper objectMapper,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/h2-console/**", "/api/healthcheck").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                .requestMatchers("/auth/login").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                 .anyRequest().authenticated()
             )
+            // Token Bearer validado só com HMAC; HTTP Basic continua aceito
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
+            // Limite de tentativas de login/troca de senha antes de qualquer autenticação (e BCrypt)
+            .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter, clientIpResolver, objectMapper),
+                    TokenAuthenticationFilter.class)
+            // Pool de BCrypt saturado no HTTP Basic: 503 com Retry-After
+            .addFilterBefore(new HashingUnavailableFilter(handlerExceptionResolver), LoginRateLimitFilter.class)
             .httpBasic(httpBasic -> {}) 
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .csrf(csrf -> csrf.disable())
             .headers(headers -> headers.frameOptions().disable());
 
@@ -33,11 +75,25 @@ public class SecurityConfig {
     }
     
     @Bean
-    public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
-        return username -> User.builder()
+    public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder, UserCache userCache) {
+        // Usuário padrão de desenvolvimento; a senha é criptografada uma única vez
+        UserDetails defaultUser = User.builder()
             .username("user")
-            .password(passwordEncoder.encode("1234"))  // Criptografa a senha
+            .password(passwordEncoder.encode("1234"))
             .roles("USER")
             .build();
+
+        return username -> userCache.findCredentialsByUsername(username)
+            .<UserDetails>map(user -> User.builder()
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .roles("USER")
+                .build())
+            .orElseGet(() -> {
+                if (defaultUser.getUsername().equals(username)) {
+                    return User.withUserDetails(defaultUser).build();
+                }
+                throw new UsernameNotFoundException("User not found.");
+            });
     }
 }
@@ -0,0 +1,114 @@
+package br.com.fiap.api.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Emite e valida tokens de acesso curtos assinados com HMAC-SHA256, no formato
+ * {@code base64url(username|expiraEm).base64url(assinatura)}. Validar um token custa
+ * um HMAC, contra um BCrypt inteiro por requisição no HTTP Basic.
+ */
+@Service
+public class TokenService {
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac prototype;
+    private final long ttlSeconds;
+    private final Clock clock;
+
+    @Autowired
+    public TokenService(
+            @Value("${auth.token.secret:}") String secret,
+            @Value("${auth.token.ttl-seconds:900}") long ttlSeconds) {
+        this(secret, ttlSeconds, Clock.systemUTC());
+    }
+
+    TokenService(String secret, long ttlSeconds, Clock clock) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            // Sem segredo configurado os tokens só valem nesta instância e até o próximo restart
+            log.warn("auth.token.secret is not set; using a random key for this instance");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public String issue(String username) {
+        long expiresAt = clock.instant().getEpochSecond() + ttlSeconds;
+        byte[] payload = (username + "|" + expiresAt).getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * @return o username do token, ou {@code null} se o token for inválido ou estiver expirado
+     */
+    public String verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            String decoded = new String(payload, StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            if (separator <= 0) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(decoded.substring(separator + 1));
+            if (clock.instant().getEpochSecond() >= expiresAt) {
+                return null;
+            }
+            return decoded.substring(0, separator);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            // Mac não é thread-safe; clonar o protótipo já inicializado é barato
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
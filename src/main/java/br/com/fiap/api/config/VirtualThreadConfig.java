@@ -0,0 +1,84 @@
+package br.com.fiap.api.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Ativa só com {@code spring.threads.virtual.enabled=true}: as requisições (Tomcat)
+ * e as tarefas agendadas passam a rodar em virtual threads, e o acesso ao banco
+ * fica limitado pelo tamanho do pool de conexões; ver {@link JdbcAdmissionDataSource}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    // static: o post-processor precisa existir antes dos demais beans
+    @Bean
+    public static BeanPostProcessor jdbcAdmissionPostProcessor(Environment environment) {
+        int maxWaiting = environment.getProperty("db.admission.max-waiting", Integer.class, 200);
+        long maxWaitMillis = environment.getProperty("db.admission.max-wait-ms", Long.class, 2000L);
+        long retryAfterSeconds = environment.getProperty("db.admission.retry-after-seconds", Long.class, 1L);
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    // Sem valor configurado o Hikari só define o tamanho (10) ao iniciar o pool
+                    int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+                    return new JdbcAdmissionDataSource(hikari, poolSize, maxWaiting, maxWaitMillis, retryAfterSeconds);
+                }
+                return bean;
+            }
+
+            // Antes do roteamento para réplicas (ReadReplicaConfig), que envolve o resultado
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+        };
+    }
+
+    private interface OrderedBeanPostProcessor extends BeanPostProcessor, Ordered {
+    }
+
+    @Bean
+    public MeterBinder jdbcAdmissionMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            JdbcAdmissionDataSource admission = admissionOf(dataSource.getIfAvailable());
+            if (admission != null) {
+                Gauge.builder("db.admission.in.use", admission, JdbcAdmissionDataSource::getInUse).register(registry);
+                Gauge.builder("db.admission.waiting", admission, JdbcAdmissionDataSource::getWaiting).register(registry);
+                FunctionCounter.builder("db.admission.rejected", admission, JdbcAdmissionDataSource::getRejectedCount)
+                        .register(registry);
+            }
+        };
+    }
+
+    /** O limite de acesso do DataSource, mesmo envolvido pelo roteamento para réplicas; {@code null} se não houver. */
+    static JdbcAdmissionDataSource admissionOf(DataSource dataSource) {
+        try {
+            return dataSource != null && dataSource.isWrapperFor(JdbcAdmissionDataSource.class)
+                    ? dataSource.unwrap(JdbcAdmissionDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package br.com.fiap.api.controller;
 
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -9,9 +12,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import br.com.fiap.api.config.TokenService;
 import br.com.fiap.api.dto.LoginRequest;
+import br.com.fiap.api.dto.LoginResponse;
 import br.com.fiap.api.dto.ResetPasswordRequest;
+import br.com.fiap.api.service.PasswordHashingService;
 import br.com.fiap.api.service.UserService;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -19,13 +26,22 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody LoginRequest loginUserRequest) {
+    // Limite de tentativas aplicado antes, no LoginRateLimitFilter
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginUserRequest) {
         boolean autenticated = userService.autenticateUser(
             loginUserRequest.getUsername(), loginUserRequest.getPassword());
 
         if (autenticated) {
-            return ResponseEntity.ok("Login succeeded");
+            // Token curto para usar como "Authorization: Bearer" nas próximas requisições
+            String token = tokenService.issue(loginUserRequest.getUsername());
+            return ResponseEntity.ok(new LoginResponse(token, "Bearer", tokenService.getTtlSeconds()));
         } else {
             return ResponseEntity.status(401).body("Not authorized. Invalid credentials.");
         }
@@ -44,6 +60,9 @@ public class AuthController {
             return ResponseEntity.status(401).body("Not authorized to perform this action.");
         }
     }
-}
-
 
+    @GetMapping("/hashing")
+    public ResponseEntity<Map<String, Object>> hashingStats() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+}
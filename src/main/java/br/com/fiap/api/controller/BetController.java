@@ -0,0 +1,37 @@
+package br.com.fiap.api.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.fiap.api.bet.BetLimitService;
+import br.com.fiap.api.dto.BetAuthorizationRequest;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/bets")
+public class BetController {
+
+    @Autowired
+    private BetLimitService betLimitService;
+
+    // 200 com approved true/false; 404 se o usuário não existe
+    @PostMapping("/authorize")
+    public ResponseEntity<?> authorize(@RequestBody @Valid BetAuthorizationRequest request) {
+        return betLimitService.authorize(request.getUserId(), request.getAmount())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found"));
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return betLimitService.getStats();
+    }
+}
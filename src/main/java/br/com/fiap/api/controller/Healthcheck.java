@@ -1,5 +1,14 @@
 package br.com.fiap.api.controller;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.CompositeHealth;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -9,10 +18,28 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api")
 public class Healthcheck {
 
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    /**
+     * Prontidão da instância (grupo {@code readiness}: banco e gravação de logs).
+     * Responde 503 se algum componente estiver fora; só expõe o status de cada um,
+     * os detalhes ficam em /actuator/health.
+     */
     @GetMapping("/healthcheck")
-    public ResponseEntity<String> healthCheck() {
+    public ResponseEntity<Map<String, Object>> healthCheck() {
+        HealthComponent readiness = healthEndpoint.healthForPath("readiness");
+        Status status = readiness != null ? readiness.getStatus() : Status.UNKNOWN;
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status.getCode());
+        if (readiness instanceof CompositeHealth composite && composite.getComponents() != null) {
+            Map<String, String> components = new LinkedHashMap<>();
+            composite.getComponents().forEach((name, component) -> components.put(name, component.getStatus().getCode()));
+            body.put("components", components);
+        }
         return ResponseEntity
-        		.status(200)
-        		.body("API is healthy!");
+        		.status(Status.UP.equals(status) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+        		.body(body);
     }
 }
@@ -1,14 +1,22 @@
 package br.com.fiap.api.controller;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import br.com.fiap.api.log.LogPage;
+import br.com.fiap.api.log.MergedLogPage;
 import br.com.fiap.api.log.LogSummaryService;
-import br.com.fiap.api.log.LogSummaryService.LogEntry;
+import br.com.fiap.api.log.LogTailService;
 
 @RestController
 @RequestMapping("/api/logs")
@@ -17,8 +25,53 @@ public class LogController {
     @Autowired
     private LogSummaryService logSummaryService;
 
+    @Autowired
+    private LogTailService logTailService;
+
     @GetMapping("/summary")
-    public List<LogEntry> getLogsSummary() {
-        return logSummaryService.getSummary();
+    public LogPage getLogsSummary(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String contains,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return logSummaryService.query(level, from, to, contains, after, limit);
+    }
+
+    @GetMapping("/merged")
+    public MergedLogPage getMergedLogs(
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String contains,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return logSummaryService.queryAllInstances(level, from, to, contains, after, limit);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLogs(
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String level) {
+        return logTailService.open(lastEventId != null ? lastEventId : after, since, level);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getLogsStats(@RequestParam(defaultValue = "10") int top) {
+        return logSummaryService.getStats(Math.min(top, 100));
+    }
+
+    @GetMapping("/pipeline")
+    public Map<String, Object> getPipelineStats() {
+        return Map.of(
+                "instance", logSummaryService.getInstanceId(),
+                "entries", logSummaryService.getEntryCount(),
+                "queueDepth", logSummaryService.getQueueDepth(),
+                "dropped", logSummaryService.getDroppedCount(),
+                "written", logSummaryService.getWrittenCount(),
+                "streamSubscribers", logSummaryService.getSubscriberCount());
     }
 }
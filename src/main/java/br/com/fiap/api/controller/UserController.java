@@ -1,35 +1,122 @@
 package br.com.fiap.api.controller;
 
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.fiap.api.config.ReplicaRoutingContext;
+import br.com.fiap.api.dto.UserBatchResult;
 import br.com.fiap.api.dto.UserCreateDTO;
+import br.com.fiap.api.dto.UserPage;
+import br.com.fiap.api.dto.UserSearchPage;
 import br.com.fiap.api.dto.UserUpdateDTO;
 import br.com.fiap.api.model.User;
+import br.com.fiap.api.service.UserBatchImportService;
+import br.com.fiap.api.service.UserCache;
+import br.com.fiap.api.service.UserChangeCounter;
+import br.com.fiap.api.service.UserSearchService;
 import br.com.fiap.api.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+/**
+ * Leituras com ETag forte: {@code id-versão} para um usuário e o contador de alterações
+ * da tabela para as listagens. Com {@code If-None-Match} igual, a resposta é 304 sem
+ * carregar nem serializar os usuários.
+ */
 @RestController
 @RequestMapping("/api/v1/users")
 public class UserController {
 
+    // Cliente guarda a resposta, mas sempre confirma com If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private UserService userService;
 
-    @GetMapping
-    public List<User> listAllUsers() {
-        return userService.listAll();
+    @Autowired
+    private UserBatchImportService userBatchImportService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private UserChangeCounter userChangeCounter;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserPage> listUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String etag = collectionETag("page");
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(userService.listPage(after, limit));
+    }
+
+    // Accept: application/x-ndjson devolve todos os usuários, um por linha, sem paginação
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(required = false) Long after, WebRequest request) {
+        String etag = collectionETag("ndjson");
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        // O corpo é escrito em outra thread: leva junto a réplica (ou o primário) desta requisição
+        ReplicaRoutingContext routing = ReplicaRoutingContext.current();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(out -> ReplicaRoutingContext.runWith(routing, () -> userService.streamAll(after, out)));
+    }
+
+    // Exatamente um critério: email (exato), username (prefixo) ou name (prefixo, sem diferenciar maiúsculas)
+    @GetMapping("/search")
+    public ResponseEntity<UserSearchPage> searchUsers(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        String etag = collectionETag("search");
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .body(userSearchService.search(email, username, name, after, limit));
+    }
+
+    @GetMapping("/cache")
+    public Map<String, Object> cacheStats() {
+        return userCache.getStats();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> searchUserForId(@PathVariable Long id) {
+    public ResponseEntity<User> searchUserForId(@PathVariable Long id, WebRequest request) {
+        // Só a versão (do cache ou pela PK) decide o 304
+        Long version = userService.findVersion(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = userETag(id, version);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
         return userService.searchForId(id)
-                .map(ResponseEntity::ok)
+                .map(UserController::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -37,39 +124,79 @@ public class UserController {
     public ResponseEntity<?> createUser(@RequestBody @Valid UserCreateDTO dto) {
         try {
             User savedUser = userService.createUser(dto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedUser);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .eTag(userETag(savedUser.getId_user(), savedUser.getVersion()))
+                    .body(savedUser);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
         }
     }
 
+    // Corpo lido em streaming: array JSON de UserCreateDTO, resultado por linha
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserBatchResult> createUsers(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(userBatchImportService.importUsers(request.getInputStream()));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody @Valid UserUpdateDTO dto) {
-        try {
-            User updatedUser = userService.updateUser(id, dto);
-            return ResponseEntity.ok(updatedUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
-        }
+    public ResponseEntity<?> updateUser(
+            @PathVariable Long id,
+            @RequestBody @Valid UserUpdateDTO dto,
+            @RequestHeader(name = "Prefer", required = false) String prefer) {
+        return updated(id, userService.updateUser(id, dto), prefer);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<?> updateUserField(@PathVariable Long id, @RequestBody UserUpdateDTO dto) {
-        try {
-            User updatedUser = userService.updateUser(id, dto);
-            return ResponseEntity.ok(updatedUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    public ResponseEntity<?> updateUserField(
+            @PathVariable Long id,
+            @RequestBody UserUpdateDTO dto,
+            @RequestHeader(name = "Prefer", required = false) String prefer) {
+        return updated(id, userService.updateUser(id, dto), prefer);
+    }
+
+    // 200 com o usuário atualizado; com "Prefer: return=minimal", 204 sem ler o usuário de volta
+    private ResponseEntity<?> updated(Long id, boolean updated, String prefer) {
+        if (!updated) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
+        if (prefer != null && prefer.contains("return=minimal")) {
+            return ResponseEntity.noContent().build();
+        }
+        return userService.searchForId(id)
+                .<ResponseEntity<?>>map(UserController::withETag)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found"));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         try {
-            userService.delete(id);
+            if (userService.delete(id) == 0) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
+
+    // O ETag sai da versão do objeto devolvido, que pode ser mais nova que a consultada antes
+    private static ResponseEntity<User> withETag(User user) {
+        return ResponseEntity.ok()
+                .eTag(userETag(user.getId_user(), user.getVersion()))
+                .cacheControl(REVALIDATE)
+                .body(user);
+    }
+
+    private static String userETag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // Contador lido antes dos dados; o formato entra no ETag porque a mesma URL tem JSON e NDJSON
+    private String collectionETag(String representation) {
+        return "\"users-" + representation + "-" + userChangeCounter.current() + "\"";
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
 }
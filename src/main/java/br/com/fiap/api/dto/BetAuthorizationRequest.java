@@ -0,0 +1,16 @@
+package br.com.fiap.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class BetAuthorizationRequest {
+
+    @NotNull
+    private Long userId;
+
+    @NotNull
+    @Positive
+    private Double amount;
+}
@@ -0,0 +1,19 @@
+package br.com.fiap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado da autorização. {@code spent} e {@code remaining} já consideram o
+ * valor pedido quando a aposta foi aprovada.
+ */
+@Data
+@AllArgsConstructor
+public class BetAuthorizationResponse {
+    private Long userId;
+    private boolean approved;
+    private double amount;
+    private double limit;
+    private double spent;
+    private double remaining;
+}
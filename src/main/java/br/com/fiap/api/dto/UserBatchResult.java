@@ -0,0 +1,50 @@
+package br.com.fiap.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de {@code POST /api/v1/users/batch}: um item por elemento do array
+ * recebido, na mesma ordem. {@code error} só aparece se a leitura do corpo foi
+ * interrompida; as linhas anteriores ao erro já foram processadas.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserBatchResult {
+
+    public enum Status { CREATED, INVALID, DUPLICATE, FAILED }
+
+    private int total;
+    private int created;
+    private int failed;
+    private String error;
+    private List<Row> results = new ArrayList<>();
+
+    public void add(Row row) {
+        results.add(row);
+        total++;
+        if (row.getStatus() == Status.CREATED) {
+            created++;
+        } else {
+            failed++;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Row {
+        private int index;
+        private Status status;
+        private Long id;
+        private String username;
+        private String message;
+    }
+}
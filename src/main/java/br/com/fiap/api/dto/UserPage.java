@@ -0,0 +1,18 @@
+package br.com.fiap.api.dto;
+
+import java.util.List;
+
+import br.com.fiap.api.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Página da listagem de usuários. {@code nextCursor} é o valor a ser passado em
+ * {@code after} para buscar a próxima página, ou {@code null} na última página.
+ */
+@Data
+@AllArgsConstructor
+public class UserPage {
+    private List<User> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,17 @@
+package br.com.fiap.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Página da busca de usuários. {@code nextCursor} é opaco: deve ser passado em
+ * {@code after} junto com o mesmo critério de busca, ou é {@code null} na última página.
+ */
+@Data
+@AllArgsConstructor
+public class UserSearchPage {
+    private List<UserSummary> items;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package br.com.fiap.api.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projeção usada na busca de usuários: só as colunas de identificação, sem senha.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String clientName;
+    private String email;
+    private String username;
+    private LocalDate registerDate;
+}
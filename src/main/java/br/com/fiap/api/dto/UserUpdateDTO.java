@@ -12,4 +12,6 @@ public class UserUpdateDTO {
     @Min(value = 0)
     private Double betMaxValue;
     private String userPixKey;
+    // Versão lida pelo cliente; se informada, a atualização falha com 409 quando a linha mudou
+    private Long version;
 }
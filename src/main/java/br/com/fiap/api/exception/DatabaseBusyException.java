@@ -0,0 +1,21 @@
+package br.com.fiap.api.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Limite de threads esperando conexão com o banco atingido; o cliente deve tentar
+ * de novo depois de {@link #getRetryAfterSeconds()} segundos.
+ */
+public class DatabaseBusyException extends SQLTransientConnectionException {
+
+    private final long retryAfterSeconds;
+
+    public DatabaseBusyException(String message, long retryAfterSeconds) {
+        super(message, "08001");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
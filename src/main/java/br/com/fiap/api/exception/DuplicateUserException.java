@@ -0,0 +1,11 @@
+package br.com.fiap.api.exception;
+
+/**
+ * Username ou e-mail já cadastrado (409).
+ */
+public class DuplicateUserException extends RuntimeException {
+
+    public DuplicateUserException(String message) {
+        super(message);
+    }
+}
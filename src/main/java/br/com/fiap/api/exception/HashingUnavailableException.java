@@ -0,0 +1,19 @@
+package br.com.fiap.api.exception;
+
+/**
+ * O executor de hashing de senhas está saturado; o cliente deve tentar de novo
+ * depois de {@link #getRetryAfterSeconds()} segundos.
+ */
+public class HashingUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public HashingUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.fiap.api.exception;
+
+/**
+ * O stream de logs já atende o máximo de assinantes; o cliente deve tentar de novo
+ * depois de {@link #getRetryAfterSeconds()} segundos.
+ */
+public class StreamUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public StreamUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
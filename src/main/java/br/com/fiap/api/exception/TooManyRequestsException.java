@@ -0,0 +1,19 @@
+package br.com.fiap.api.exception;
+
+/**
+ * Limite de tentativas atingido (429); o cliente deve tentar de novo depois de
+ * {@link #getRetryAfterSeconds()} segundos.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
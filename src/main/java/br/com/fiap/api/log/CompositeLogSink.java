@@ -0,0 +1,45 @@
+package br.com.fiap.api.log;
+
+import java.io.IOException;
+import java.util.List;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Repassa cada lote para vários destinos. A falha de um destino não impede
+ * a gravação nos demais; o erro é propagado depois que todos foram tentados.
+ */
+public class CompositeLogSink implements LogSink {
+
+    private final List<LogSink> sinks;
+
+    public CompositeLogSink(List<LogSink> sinks) {
+        this.sinks = List.copyOf(sinks);
+    }
+
+    @Override
+    public void append(List<LogEntry> batch) throws IOException {
+        IOException failure = null;
+        for (LogSink sink : sinks) {
+            try {
+                sink.append(batch);
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) {
+                    failure = new IOException("Falha ao gravar lote de logs", e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (LogSink sink : sinks) {
+            sink.close();
+        }
+    }
+}
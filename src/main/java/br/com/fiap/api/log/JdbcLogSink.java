@@ -0,0 +1,62 @@
+package br.com.fiap.api.log;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Grava os logs na tabela {@code logs} com INSERTs de várias linhas
+ * ({@code VALUES (...), (...), ...}), um comando por bloco de até {@code rowsPerStatement} entradas.
+ */
+public class JdbcLogSink implements LogSink {
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final int MAX_LEVEL_LENGTH = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rowsPerStatement;
+
+    public JdbcLogSink(JdbcTemplate jdbcTemplate, int rowsPerStatement) {
+        if (rowsPerStatement <= 0) {
+            throw new IllegalArgumentException("Rows per statement must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    @Override
+    public void append(List<LogEntry> batch) {
+        for (int start = 0; start < batch.size(); start += rowsPerStatement) {
+            List<LogEntry> chunk = batch.subList(start, Math.min(start + rowsPerStatement, batch.size()));
+            insert(chunk);
+        }
+    }
+
+    private void insert(List<LogEntry> chunk) {
+        StringBuilder sql = new StringBuilder("INSERT INTO logs (level, message, timestamp) VALUES ");
+        List<Object> args = new ArrayList<>(chunk.size() * 3);
+        for (int i = 0; i < chunk.size(); i++) {
+            LogEntry entry = chunk.get(i);
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+            args.add(truncate(entry.level, MAX_LEVEL_LENGTH));
+            args.add(truncate(entry.message, MAX_MESSAGE_LENGTH));
+            args.add(entry.timestamp != null ? Timestamp.valueOf(entry.timestamp) : null);
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static String truncate(String value, int max) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.fiap.api.log;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Agregados dos logs atualizados a cada entrada em O(1): contagem por nível,
+ * histogramas por minuto e por hora em buffers circulares e contagem por modelo
+ * de mensagem ("Creating user: *").
+ */
+public class LogAggregates {
+
+    public static final int MINUTE_BUCKETS = 60;
+    public static final int HOUR_BUCKETS = 24;
+    public static final int MAX_TEMPLATES = 1000;
+    public static final String OTHER_TEMPLATE = "(other)";
+
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> byLevel = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byTemplate = new ConcurrentHashMap<>();
+    private final TimeBuckets perMinute = new TimeBuckets(MINUTE_BUCKETS, 60);
+    private final TimeBuckets perHour = new TimeBuckets(HOUR_BUCKETS, 3600);
+
+    public void record(LogEntry entry) {
+        total.increment();
+        byLevel.computeIfAbsent(LogIndex.normalizeLevel(entry.level), l -> new LongAdder()).increment();
+
+        String template = templateOf(entry.message);
+        LongAdder counter = byTemplate.get(template);
+        if (counter == null) {
+            // Limita a quantidade de modelos distintos para a memória não crescer com mensagens únicas
+            counter = byTemplate.size() < MAX_TEMPLATES
+                    ? byTemplate.computeIfAbsent(template, t -> new LongAdder())
+                    : byTemplate.computeIfAbsent(OTHER_TEMPLATE, t -> new LongAdder());
+        }
+        counter.increment();
+
+        if (entry.timestamp != null) {
+            long epochSecond = entry.timestamp.toEpochSecond(ZoneOffset.UTC);
+            perMinute.increment(epochSecond);
+            perHour.increment(epochSecond);
+        }
+    }
+
+    /**
+     * Fotografia dos agregados. Os histogramas cobrem a última hora (por minuto) e as
+     * últimas 24 horas (por hora) até {@code now}, do mais antigo para o mais recente.
+     */
+    public Map<String, Object> snapshot(LocalDateTime now, int topTemplates) {
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+
+        Map<String, Long> levels = new LinkedHashMap<>();
+        byLevel.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> levels.put(e.getKey(), e.getValue().sum()));
+
+        List<Map<String, Object>> templates = new ArrayList<>();
+        byTemplate.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(Math.max(0, topTemplates))
+                .forEach(e -> templates.add(Map.of("template", e.getKey(), "count", e.getValue())));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total.sum());
+        result.put("levels", levels);
+        result.put("perMinute", perMinute.series(nowSecond));
+        result.put("perHour", perHour.series(nowSecond));
+        result.put("topTemplates", templates);
+        return result;
+    }
+
+    /**
+     * Modelo da mensagem: o que vem depois do primeiro ": " vira "*" e sequências
+     * de dígitos também; ex.: "Creating user: joao" vira "Creating user: *".
+     */
+    static String templateOf(String message) {
+        if (message == null) {
+            return "";
+        }
+        int separator = message.indexOf(": ");
+        String prefix = separator >= 0 ? message.substring(0, separator + 2) + "*" : message;
+        return DIGITS.matcher(prefix).replaceAll("*");
+    }
+
+    /**
+     * Buffer circular de contadores por janela de tempo. Cada posição guarda, em um
+     * único long, o número da janela (32 bits altos) e a contagem (32 bits baixos),
+     * então trocar de janela e incrementar é um único CAS.
+     */
+    static final class TimeBuckets {
+        private final AtomicLongArray slots;
+        private final int size;
+        private final long bucketSeconds;
+
+        TimeBuckets(int size, long bucketSeconds) {
+            this.slots = new AtomicLongArray(size);
+            this.size = size;
+            this.bucketSeconds = bucketSeconds;
+        }
+
+        void increment(long epochSecond) {
+            long bucket = Math.floorDiv(epochSecond, bucketSeconds);
+            int slot = (int) Math.floorMod(bucket, (long) size);
+            long stamp = bucket & 0xFFFFFFFFL;
+            while (true) {
+                long current = slots.get(slot);
+                long currentStamp = current >>> 32;
+                long next;
+                if (currentStamp == stamp) {
+                    next = current + 1;
+                } else if (currentStamp < stamp) {
+                    next = (stamp << 32) | 1;
+                } else {
+                    // Entrada mais antiga que a janela guardada nesta posição: já saiu do buffer
+                    return;
+                }
+                if (slots.compareAndSet(slot, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        List<Map<String, Object>> series(long nowSecond) {
+            long newest = Math.floorDiv(nowSecond, bucketSeconds);
+            List<Map<String, Object>> series = new ArrayList<>(size);
+            for (long bucket = newest - size + 1; bucket <= newest; bucket++) {
+                long value = slots.get((int) Math.floorMod(bucket, (long) size));
+                long count = (value >>> 32) == (bucket & 0xFFFFFFFFL) ? value & 0xFFFFFFFFL : 0;
+                LocalDateTime start = LocalDateTime.ofEpochSecond(bucket * bucketSeconds, 0, ZoneOffset.UTC);
+                series.add(Map.of("start", start, "count", count));
+            }
+            return series;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package br.com.fiap.api.log;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Índice em memória dos logs de atividade. As entradas ficam em ordem de chegada
+ * (que é a ordem de tempo), com vetores paralelos de ids e de chaves de tempo para
+ * busca binária e uma lista de posições por nível. Cada entrada recebe um id
+ * sequencial, usado como cursor de paginação.
+ * <p>
+ * O índice guarda só as entradas mais recentes: ao chegar em {@code 2 * maxEntries}
+ * as mais antigas são descartadas, mantendo {@code maxEntries}. O histórico completo
+ * continua em disco.
+ * <p>
+ * Uma consulta examina no máximo {@code maxScanned} entradas (o filtro
+ * {@code contains} não tem índice): ao chegar nisso, devolve o que achou com o cursor
+ * na última entrada examinada, e a próxima página continua dali.
+ */
+public class LogIndex {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+    public static final int DEFAULT_MAX_SCANNED = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxEntries;
+    private final int maxScanned;
+    private List<LogEntry> entries = new ArrayList<>();
+    private Map<String, IntList> byLevel = new HashMap<>();
+    private long[] ids = new long[1024];
+    private long[] timeKeys = new long[1024];
+    private long nextId;
+
+    public LogIndex() {
+        this(Integer.MAX_VALUE / 2);
+    }
+
+    public LogIndex(int maxEntries) {
+        this(maxEntries, DEFAULT_MAX_SCANNED);
+    }
+
+    public LogIndex(int maxEntries, int maxScanned) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        if (maxScanned < MAX_LIMIT) {
+            throw new IllegalArgumentException("Max scanned entries must be at least " + MAX_LIMIT);
+        }
+        this.maxEntries = maxEntries;
+        this.maxScanned = maxScanned;
+    }
+
+    /**
+     * Adiciona a entrada no fim do índice. Entradas sem id (ou com id fora de ordem)
+     * recebem o próximo id da sequência, e um timestamp anterior ao da última entrada
+     * recebe o dela. Chame antes de publicar a entrada: este é o único ponto em que
+     * id e timestamp são atribuídos.
+     */
+    public void add(LogEntry entry) {
+        lock.writeLock().lock();
+        try {
+            if (entries.size() >= 2L * maxEntries) {
+                compact();
+            }
+            if (entry.id == null || entry.id < nextId) {
+                entry.id = nextId;
+            }
+            nextId = entry.id + 1;
+            LocalDateTime last = entries.isEmpty() ? null : entries.get(entries.size() - 1).timestamp;
+            if (entry.timestamp != null && last != null && entry.timestamp.isBefore(last)) {
+                entry.timestamp = last;
+            }
+            append(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Id da entrada mais antiga em memória (ou o próximo id, se o índice estiver vazio). */
+    public long firstId() {
+        lock.readLock().lock();
+        try {
+            return entries.isEmpty() ? nextId : ids[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Menor timestamp em memória, ou {@code null} se o índice estiver vazio. */
+    public LocalDateTime firstTimestamp() {
+        lock.readLock().lock();
+        try {
+            return entries.isEmpty() ? null : entries.get(0).timestamp;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Coloca entradas mais antigas (já com id, em ordem) antes das atuais, para a carga
+     * do disco que termina depois de o índice já estar recebendo entradas novas. Só
+     * entram as com id menor que o da primeira entrada em memória, até completar
+     * {@code maxEntries}.
+     */
+    public void prepend(List<LogEntry> older) {
+        lock.writeLock().lock();
+        try {
+            long limit = entries.isEmpty() ? nextId : ids[0];
+            int end = older.size();
+            while (end > 0 && older.get(end - 1).id >= limit) {
+                end--;
+            }
+            int start = Math.max(0, end - Math.max(0, maxEntries - entries.size()));
+            if (start == end) {
+                return;
+            }
+            List<LogEntry> merged = new ArrayList<>(older.subList(start, end));
+            merged.addAll(entries);
+            entries = new ArrayList<>(Math.max(merged.size(), 1024));
+            byLevel = new HashMap<>();
+            ids = new long[Math.max(1024, merged.size() * 2)];
+            timeKeys = new long[ids.length];
+            merged.forEach(this::append);
+            nextId = Math.max(nextId, ids[merged.size() - 1] + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Faz a sequência de ids continuar a partir de {@code id}, se ele for maior que o atual. */
+    public void advanceNextId(long id) {
+        lock.writeLock().lock();
+        try {
+            nextId = Math.max(nextId, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca entradas em ordem de tempo.
+     *
+     * @param level    nível exato (opcional)
+     * @param from     início do intervalo, inclusivo (opcional)
+     * @param to       fim do intervalo, exclusivo (opcional)
+     * @param contains trecho que a mensagem deve conter (opcional)
+     * @param after    devolve apenas entradas com id maior que este (opcional)
+     * @param limit    quantidade máxima de itens, limitada a {@link #MAX_LIMIT}
+     * @return a página; com o limite de entradas examinadas, pode vir incompleta (até
+     *         vazia) e ainda assim com {@code nextCursor}
+     */
+    public LogPage query(String level, LocalDateTime from, LocalDateTime to, String contains, Long after, Integer limit) {
+        int max = normalizeLimit(limit);
+
+        lock.readLock().lock();
+        try {
+            int size = entries.size();
+            int start = from == null ? 0 : lowerBound(timeKeys, toKey(from), size);
+            int end = to == null ? size : lowerBound(timeKeys, toKey(to), size);
+            if (after != null && after != Long.MAX_VALUE) {
+                start = Math.max(start, lowerBound(ids, after + 1, size));
+            } else if (after != null) {
+                start = size;
+            }
+
+            List<LogEntry> items = new ArrayList<>(Math.min(max, Math.max(0, end - start)));
+            // Última posição examinada e se sobrou algo por examinar
+            int last = -1;
+            boolean more = false;
+            if (level != null) {
+                IntList positions = byLevel.get(normalizeLevel(level));
+                if (positions != null) {
+                    int first = positions.lowerBound(start);
+                    int i = first;
+                    for (; i < positions.size && positions.values[i] < end && items.size() < max
+                            && i - first < maxScanned; i++) {
+                        last = positions.values[i];
+                        collect(last, contains, items);
+                    }
+                    more = i < positions.size && positions.values[i] < end;
+                }
+            } else {
+                int position = start;
+                for (; position < end && items.size() < max && position - start < maxScanned; position++) {
+                    collect(position, contains, items);
+                }
+                last = position - 1;
+                more = position < end;
+            }
+
+            Long nextCursor = more ? ids[last] : null;
+            return new LogPage(items, nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int normalizeLimit(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private void append(LogEntry entry) {
+        int position = entries.size();
+        entries.add(entry);
+
+        if (position == timeKeys.length) {
+            timeKeys = Arrays.copyOf(timeKeys, position * 2);
+            ids = Arrays.copyOf(ids, position * 2);
+        }
+        ids[position] = entry.id;
+        // Relógio que volta não pode quebrar a ordenação usada pela busca binária
+        long key = toKey(entry.timestamp);
+        timeKeys[position] = position > 0 ? Math.max(key, timeKeys[position - 1]) : key;
+
+        byLevel.computeIfAbsent(normalizeLevel(entry.level), l -> new IntList()).add(position);
+    }
+
+    // Descarta as entradas mais antigas e reconstrói os vetores; custo amortizado O(1) por add
+    private void compact() {
+        List<LogEntry> kept = new ArrayList<>(entries.subList(entries.size() - maxEntries, entries.size()));
+        entries = new ArrayList<>(2 * maxEntries);
+        byLevel = new HashMap<>();
+        ids = new long[Math.max(1024, kept.size() * 2)];
+        timeKeys = new long[ids.length];
+        kept.forEach(this::append);
+    }
+
+    private void collect(int position, String contains, List<LogEntry> items) {
+        LogEntry entry = entries.get(position);
+        if (matches(entry, contains)) {
+            items.add(entry);
+        }
+    }
+
+    static boolean matches(LogEntry entry, String contains) {
+        return contains == null || (entry.message != null && entry.message.contains(contains));
+    }
+
+    // Primeira posição com valor >= key
+    private static int lowerBound(long[] values, long key, int size) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long toKey(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return Long.MIN_VALUE;
+        }
+        long seconds = timestamp.toEpochSecond(ZoneOffset.UTC);
+        try {
+            return Math.addExact(Math.multiplyExact(seconds, 1_000_000_000L), timestamp.getNano());
+        } catch (ArithmeticException e) {
+            // Datas fora da faixa representável (ex.: ano 999999) saturam nos extremos
+            return seconds < 0 ? Long.MIN_VALUE + 1 : Long.MAX_VALUE;
+        }
+    }
+
+    static String normalizeLevel(String level) {
+        return level == null ? "" : level.toUpperCase();
+    }
+
+    /** Lista de ints crescentes sem boxing, usada como posting list por nível. */
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        // Primeiro índice cujo valor é >= value
+        int lowerBound(int value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.fiap.api.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Diretório de logs exclusivo de uma instância da API. Várias instâncias podem
+ * compartilhar o mesmo volume: cada uma grava apenas em {@code instances/<id>},
+ * protegido por um {@link FileLock} em {@code .lock} enquanto o processo estiver vivo.
+ */
+public class LogInstanceDirectory implements Closeable {
+
+    public static final String INSTANCES_DIR = "instances";
+    private static final String LOCK_FILE = ".lock";
+    private static final int MAX_AUTO_INSTANCES = 1024;
+
+    private final String id;
+    private final Path dir;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private LogInstanceDirectory(String id, Path dir, FileChannel lockChannel, FileLock lock) {
+        this.id = id;
+        this.dir = dir;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+    }
+
+    /**
+     * Reserva o diretório da instância. Com {@code preferredId} vazio, usa o primeiro
+     * {@code instance-N} livre, o que mantém o mesmo diretório entre reinícios de um
+     * conjunto fixo de réplicas.
+     *
+     * @throws IllegalStateException se {@code preferredId} já estiver em uso por outro processo
+     */
+    public static LogInstanceDirectory claim(Path root, String preferredId) throws IOException {
+        Path instances = root.resolve(INSTANCES_DIR);
+        Files.createDirectories(instances);
+
+        if (preferredId != null && !preferredId.isBlank()) {
+            LogInstanceDirectory claimed = tryClaim(instances, preferredId.trim());
+            if (claimed == null) {
+                throw new IllegalStateException("Log instance '" + preferredId + "' is already in use");
+            }
+            return claimed;
+        }
+        for (int n = 0; n < MAX_AUTO_INSTANCES; n++) {
+            LogInstanceDirectory claimed = tryClaim(instances, "instance-" + n);
+            if (claimed != null) {
+                return claimed;
+            }
+        }
+        throw new IllegalStateException("No free log instance directory under " + instances);
+    }
+
+    private static LogInstanceDirectory tryClaim(Path instances, String id) throws IOException {
+        Path dir = instances.resolve(id);
+        Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return new LogInstanceDirectory(id, dir, channel, lock);
+            }
+        } catch (OverlappingFileLockException e) {
+            // Já reservado por esta mesma JVM
+        }
+        channel.close();
+        return null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (lock.isValid()) {
+            lock.release();
+        }
+        lockChannel.close();
+    }
+}
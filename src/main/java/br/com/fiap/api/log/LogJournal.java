@@ -0,0 +1,230 @@
+package br.com.fiap.api.log;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Journal append-only em formato JSON Lines: cada entrada vira uma linha compacta
+ * no fim do arquivo, então o custo de escrita não depende do tamanho do histórico.
+ * As escritas são serializadas por um {@link ReentrantLock} e não por
+ * {@code synchronized}, para não prender a thread portadora de uma virtual thread
+ * durante o I/O (Java 21).
+ */
+public class LogJournal implements LogSink {
+
+    public enum FsyncPolicy {
+        /** force() depois de cada escrita. */
+        ALWAYS,
+        /** force() no máximo uma vez por intervalo configurado. */
+        INTERVAL,
+        /** Deixa o flush para o sistema operacional. */
+        NEVER
+    }
+
+    private static final byte NEWLINE = '\n';
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private FileChannel channel;
+    private long size = -1;
+    private long lastFsync = System.nanoTime();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LogJournal(Path file, ObjectMapper objectMapper, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncIntervalMillis * 1_000_000L;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /** Tamanho atual do journal em bytes. */
+    public long size() throws IOException {
+        lock.lock();
+        try {
+            if (size < 0) {
+                size = Files.exists(file) ? Files.size(file) : 0;
+            }
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(LogEntry entry) throws IOException {
+        byte[] line = lineOf(entry);
+        lock.lock();
+        try {
+            write(ByteBuffer.wrap(line));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava o lote inteiro com uma única escrita no canal (group commit) e,
+     * conforme a política, um único fsync para o lote.
+     */
+    @Override
+    public void append(List<LogEntry> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Serialização fora do lock; só a escrita no canal é exclusiva
+        ByteArrayOutputStream out = new ByteArrayOutputStream(batch.size() * 128);
+        for (LogEntry entry : batch) {
+            out.write(lineOf(entry));
+        }
+        lock.lock();
+        try {
+            write(ByteBuffer.wrap(out.toByteArray()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lê todas as entradas do journal. Linhas que não podem ser lidas (por exemplo,
+     * a última linha truncada por uma queda no meio da escrita) são ignoradas.
+     */
+    public List<LogEntry> readAll() throws IOException {
+        List<LogEntry> result = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return result;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    result.add(objectMapper.readValue(line, LogEntry.class));
+                } catch (IOException e) {
+                    System.err.println("Linha inválida ignorada no journal de logs: " + e.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converte o arquivo legado (um array JSON reescrito a cada log) para o journal.
+     * Só roda quando o journal ainda não existe; o arquivo legado é renomeado
+     * para ".migrated" para não ser importado de novo.
+     */
+    public void migrateFrom(Path legacyFile) throws IOException {
+        if (!Files.exists(legacyFile) || Files.exists(file)) {
+            return;
+        }
+        LogEntry[] legacy = objectMapper.readValue(legacyFile.toFile(), LogEntry[].class);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (LogEntry entry : legacy) {
+                ByteBuffer buffer = ByteBuffer.wrap(lineOf(entry));
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(legacyFile, legacyFile.resolveSibling(legacyFile.getFileName() + ".migrated"),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                if (fsyncPolicy != FsyncPolicy.NEVER) {
+                    channel.force(false);
+                }
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] lineOf(LogEntry entry) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = NEWLINE;
+        return line;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        FileChannel ch = channel();
+        while (buffer.hasRemaining()) {
+            size += ch.write(buffer);
+        }
+        fsyncIfNeeded(ch);
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            boolean truncated = endsWithPartialLine();
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (truncated) {
+                // Fecha a linha incompleta para não corromper a próxima entrada
+                channel.write(ByteBuffer.wrap(new byte[] { NEWLINE }));
+            }
+            size = channel.size();
+        }
+        return channel;
+    }
+
+    private boolean endsWithPartialLine() throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size == 0) {
+                return false;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            in.read(last, size - 1);
+            return last.get(0) != NEWLINE;
+        }
+    }
+
+    private void fsyncIfNeeded(FileChannel ch) throws IOException {
+        switch (fsyncPolicy) {
+            case ALWAYS -> ch.force(false);
+            case INTERVAL -> {
+                long now = System.nanoTime();
+                if (now - lastFsync >= fsyncIntervalNanos) {
+                    ch.force(false);
+                    lastFsync = now;
+                }
+            }
+            case NEVER -> { }
+        }
+    }
+}
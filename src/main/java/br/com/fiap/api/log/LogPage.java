@@ -0,0 +1,21 @@
+package br.com.fiap.api.log;
+
+import java.util.List;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Página de resultado da consulta de logs. {@code nextCursor} é o valor a ser
+ * passado em {@code after} para buscar a próxima página, ou {@code null} quando
+ * não há mais resultados. Uma página pode vir com menos itens que o limite (até
+ * vazia) e ainda ter cursor, quando a consulta parou no limite de entradas examinadas.
+ */
+public class LogPage {
+    public final List<LogEntry> items;
+    public final Long nextCursor;
+
+    public LogPage(List<LogEntry> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
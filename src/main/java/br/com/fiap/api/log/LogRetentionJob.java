@@ -0,0 +1,86 @@
+package br.com.fiap.api.log;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Remove (ou arquiva em {@code logs_archive}) os logs mais antigos que o período
+ * de retenção. Trabalha em blocos pequenos, cada um em sua própria transação,
+ * para nunca segurar locks na tabela por muito tempo.
+ */
+@Component
+@ConditionalOnProperty(name = "logs.jdbc.enabled", havingValue = "true", matchIfMissing = true)
+public class LogRetentionJob {
+    private static final Logger log = LoggerFactory.getLogger(LogRetentionJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int chunkSize;
+    private final boolean archive;
+
+    public LogRetentionJob(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${logs.retention.days:30}") int retentionDays,
+            @Value("${logs.retention.chunk-size:1000}") int chunkSize,
+            @Value("${logs.retention.archive:false}") boolean archive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+        this.archive = archive;
+    }
+
+    @Scheduled(initialDelayString = "${logs.retention.interval-ms:3600000}",
+            fixedDelayString = "${logs.retention.interval-ms:3600000}")
+    public void purgeExpired() {
+        int total = purgeOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (total > 0) {
+            log.info("Log retention {} {} entries", archive ? "archived" : "deleted", total);
+        }
+    }
+
+    /**
+     * @return quantidade de linhas removidas da tabela {@code logs}
+     */
+    public int purgeOlderThan(LocalDateTime cutoff) {
+        Timestamp limit = Timestamp.valueOf(cutoff);
+        int total = 0;
+        while (true) {
+            Integer removed = transactionTemplate.execute(status -> purgeChunk(limit));
+            if (removed == null || removed == 0) {
+                return total;
+            }
+            total += removed;
+        }
+    }
+
+    private int purgeChunk(Timestamp limit) {
+        // Usa o índice de timestamp para achar o bloco e depois trabalha só pela chave primária
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM logs WHERE timestamp < ? ORDER BY timestamp LIMIT ?",
+                Long.class, limit, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = ids.stream().map(id -> "?").collect(Collectors.joining(", ", "(", ")"));
+        Object[] args = ids.toArray();
+        if (archive) {
+            jdbcTemplate.update("INSERT INTO logs_archive (id, level, message, timestamp) "
+                    + "SELECT id, level, message, timestamp FROM logs WHERE id IN " + in, args);
+        }
+        return jdbcTemplate.update("DELETE FROM logs WHERE id IN " + in, args);
+    }
+}
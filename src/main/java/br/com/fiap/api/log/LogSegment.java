@@ -0,0 +1,68 @@
+package br.com.fiap.api.log;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Metadados de um segmento do {@link SegmentedLogStore}. É o conteúdo do arquivo
+ * {@code .idx} gravado ao lado de cada segmento fechado, e permite decidir se o
+ * segmento interessa a uma consulta sem abrir os dados.
+ */
+public class LogSegment {
+    public long firstId;
+    public long lastId = -1;
+    public long count;
+    public LocalDateTime minTimestamp;
+    public LocalDateTime maxTimestamp;
+    public LocalDateTime createdAt;
+    public boolean sealed;
+    public boolean compressed;
+    // Pares [id, posição em bytes da linha] a cada ~OFFSET_INTERVAL entradas, para começar a leitura no meio
+    public List<long[]> offsets = new CopyOnWriteArrayList<>();
+
+    static final long OFFSET_INTERVAL = 1024;
+
+    public LogSegment() {}  // Necessário para Jackson
+
+    public LogSegment(long firstId) {
+        this.firstId = firstId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    void track(LogEntry entry) {
+        count++;
+        lastId = entry.id;
+        if (entry.timestamp != null) {
+            if (minTimestamp == null || entry.timestamp.isBefore(minTimestamp)) minTimestamp = entry.timestamp;
+            if (maxTimestamp == null || entry.timestamp.isAfter(maxTimestamp)) maxTimestamp = entry.timestamp;
+        }
+    }
+
+    // Marca a posição do lote que começa em firstEntryId, se a última marca ficou longe
+    void trackOffset(long firstEntryId, long position) {
+        if (offsets.isEmpty() || firstEntryId - offsets.get(offsets.size() - 1)[0] >= OFFSET_INTERVAL) {
+            offsets.add(new long[] { firstEntryId, position });
+        }
+    }
+
+    /** Última marca com id até {@code id}: ler dali não perde nenhuma entrada com id >= {@code id}. */
+    long[] seekTo(long id) {
+        long[] best = null;
+        for (long[] offset : offsets) {
+            if (offset[0] > id) break;
+            best = offset;
+        }
+        return best;
+    }
+
+    /** Indica se o segmento pode conter entradas no intervalo [from, to). */
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        if (count == 0 || minTimestamp == null) {
+            return count > 0;
+        }
+        return (from == null || !maxTimestamp.isBefore(from)) && (to == null || minTimestamp.isBefore(to));
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.fiap.api.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Destino de gravação dos logs de atividade. Recebe as entradas em lotes,
+ * sempre a partir da thread de escrita do {@link LogWriterPipeline}.
+ */
+public interface LogSink extends Closeable {
+
+    void append(List<LogEntry> batch) throws IOException;
+}
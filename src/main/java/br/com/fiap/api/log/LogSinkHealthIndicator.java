@@ -0,0 +1,23 @@
+package br.com.fiap.api.log;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Componente {@code logSink} da verificação de prontidão: a instância só recebe
+ * tráfego se os logs de atividade estiverem sendo gravados.
+ */
+@Component
+public class LogSinkHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private LogSummaryService logSummaryService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = logSummaryService.isSinkReady() ? Health.up() : Health.down();
+        return builder.withDetails(logSummaryService.getSinkStatus()).build();
+    }
+}
@@ -1,23 +1,54 @@
 package br.com.fiap.api.log;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.fiap.api.log.LogJournal.FsyncPolicy;
+import br.com.fiap.api.log.LogTailBroadcaster.SlowConsumerPolicy;
+import br.com.fiap.api.log.LogTailBroadcaster.Subscription;
+import br.com.fiap.api.log.LogWriterPipeline.OverflowPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 @Service
-public class LogSummaryService {
+public class LogSummaryService implements MeterBinder {
 
     public static class LogEntry {
+        public Long id;
         public String level;
         public String message;
         public LocalDateTime timestamp;
+        // Preenchido só na visão combinada de todas as instâncias
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String instance;
 
         public LogEntry() {}  // Necessário para Jackson
 
@@ -28,53 +59,310 @@ public class LogSummaryService {
         }
     }
 
-    private final List<LogEntry> entries = new ArrayList<>();
-    private final File file;
+    private final LogIndex index;
+    private final int maxScannedPerQuery;
+    private final LogAggregates aggregates = new LogAggregates();
+    private final LogTailBroadcaster broadcaster;
+    private final LogInstanceDirectory instance;
+    private final SegmentedLogStore store;
+    private final MergedLogReader mergedReader;
+    private final LogWriterPipeline pipeline;
     private final ObjectMapper objectMapper;
+    // Mantém a ordem da fila de gravação igual à dos ids atribuídos pelo índice
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile boolean preloaded;
 
-    public LogSummaryService() {
+    public LogSummaryService(
+            @Value("${logs.dir:logs}") String logsDir,
+            @Value("${logs.instance-id:}") String instanceId,
+            @Value("${logs.journal.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+            @Value("${logs.journal.fsync-interval-ms:1000}") long fsyncIntervalMillis,
+            @Value("${logs.segment.max-bytes:16777216}") long maxSegmentBytes,
+            @Value("${logs.segment.max-age-minutes:1440}") long maxSegmentAgeMinutes,
+            @Value("${logs.memory.max-entries:100000}") int maxEntriesInMemory,
+            @Value("${logs.memory.max-scanned:10000}") int maxScannedPerQuery,
+            @Value("${logs.memory.async-preload:false}") boolean asyncPreload,
+            @Value("${logs.stream.buffer-size:256}") int streamBufferSize,
+            @Value("${logs.stream.slow-consumer:SAMPLE}") SlowConsumerPolicy slowConsumerPolicy,
+            @Value("${logs.stream.max-subscribers:100}") int maxStreamSubscribers,
+            @Value("${logs.queue.capacity:10000}") int queueCapacity,
+            @Value("${logs.queue.batch-size:512}") int batchSize,
+            @Value("${logs.queue.overflow:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${logs.jdbc.enabled:true}") boolean jdbcEnabled,
+            @Value("${logs.jdbc.rows-per-statement:100}") int rowsPerStatement,
+            ObjectProvider<JdbcTemplate> jdbcTemplate) {
         // Cria diretório logs se não existir
-        File dir = new File("logs");
+        File dir = new File(logsDir);
         if (!dir.exists()) {
             dir.mkdirs();
         }
 
-        this.file = new File(dir, "logs-summary.json");
-
-        // Configura ObjectMapper com suporte a java.time.*
+        // Configura ObjectMapper com suporte a java.time.* (uma linha compacta por entrada)
         objectMapper = new ObjectMapper()
-                .enable(SerializationFeature.INDENT_OUTPUT)
                 .registerModule(new JavaTimeModule());
 
-        loadLogsFromFile();
+        this.index = new LogIndex(maxEntriesInMemory, maxScannedPerQuery);
+        this.maxScannedPerQuery = maxScannedPerQuery;
+        this.broadcaster = new LogTailBroadcaster(streamBufferSize, maxStreamSubscribers, slowConsumerPolicy);
+        // Cada instância grava só no próprio diretório; a leitura combinada enxerga todas
+        try {
+            this.instance = LogInstanceDirectory.claim(dir.toPath(), instanceId);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível reservar o diretório de logs da instância", e);
+        }
+        this.store = new SegmentedLogStore(instance.getDir(), objectMapper,
+                fsyncPolicy, fsyncIntervalMillis, maxSegmentBytes, Duration.ofMinutes(maxSegmentAgeMinutes));
+        this.mergedReader = new MergedLogReader(dir.toPath().resolve(LogInstanceDirectory.INSTANCES_DIR), objectMapper);
+
+        openSegments(dir);
+        long openedNextId = store.nextId();
+        if (asyncPreload) {
+            // Sobe sem esperar a leitura dos segmentos; até terminar, consultas antigas leem do disco
+            Thread loader = new Thread(() -> loadRecent(maxEntriesInMemory, openedNextId), "log-preload");
+            loader.setDaemon(true);
+            loader.start();
+        } else {
+            loadRecent(maxEntriesInMemory, openedNextId);
+        }
+
+        List<LogSink> sinks = new ArrayList<>();
+        sinks.add(store);
+        JdbcTemplate jdbc = jdbcTemplate.getIfAvailable();
+        if (jdbcEnabled && jdbc != null) {
+            sinks.add(new JdbcLogSink(jdbc, rowsPerStatement));
+        }
+        LogSink sink = sinks.size() == 1 ? store : new CompositeLogSink(sinks);
+
+        this.pipeline = new LogWriterPipeline(sink, queueCapacity, batchSize, overflowPolicy);
     }
 
+    /**
+     * Registra a entrada em memória e a entrega à thread de escrita; a gravação
+     * em disco acontece fora da thread de quem chamou.
+     */
     public void addLog(String level, String message) {
         LogEntry entry = new LogEntry(level, message);
-        entries.add(entry);
-        writeToFile();
+        publishLock.lock();
+        try {
+            index.add(entry);
+            pipeline.offer(entry);
+        } finally {
+            publishLock.unlock();
+        }
+        aggregates.record(entry);
+        broadcaster.publish(entry);
+    }
+
+    /**
+     * Consulta paginada em ordem de tempo; ver {@link LogIndex#query}. As entradas
+     * recentes vêm do índice em memória, inclusive a consulta sem {@code after} nem
+     * {@code from}; os segmentos mais antigos só são lidos do disco quando o cursor
+     * ou o início pedido fica antes do índice.
+     */
+    public LogPage query(String level, LocalDateTime from, LocalDateTime to, String contains, Long after, Integer limit) {
+        int max = LogIndex.normalizeLimit(limit);
+        long hotFirstId = index.firstId();
+        LocalDateTime hotFirstTimestamp = index.firstTimestamp();
+
+        boolean startsBeforeIndex = (after != null || from != null)
+                && (after == null || after < hotFirstId - 1)
+                && (from == null || hotFirstTimestamp == null || from.isBefore(hotFirstTimestamp));
+        if (!startsBeforeIndex || store.firstId() >= hotFirstId) {
+            return index.query(level, from, to, contains, after, max);
+        }
+
+        List<LogEntry> items = new ArrayList<>();
+        try {
+            LogPage cold = store.scan(level, from, to, contains, after, hotFirstId, max, maxScannedPerQuery);
+            items.addAll(cold.items);
+            // Parou no limite de entradas examinadas: a próxima página continua no disco
+            if (cold.nextCursor != null) {
+                return new LogPage(items, cold.nextCursor);
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler segmentos de logs: " + e.getMessage());
+        }
+        if (items.size() == max) {
+            return new LogPage(items, items.get(items.size() - 1).id);
+        }
+        Long hotAfter = items.isEmpty() ? after : items.get(items.size() - 1).id;
+        LogPage hot = index.query(level, from, to, contains, hotAfter, max - items.size());
+        items.addAll(hot.items);
+        return new LogPage(items, hot.nextCursor);
+    }
+
+    /**
+     * Consulta sobre os logs gravados por todas as instâncias que compartilham o
+     * diretório de logs, em ordem de tempo; ver {@link MergedLogReader}.
+     */
+    public MergedLogPage queryAllInstances(String level, LocalDateTime from, LocalDateTime to, String contains,
+            String after, Integer limit) {
+        try {
+            return mergedReader.query(level, from, to, contains, after, limit);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler logs das instâncias: " + e.getMessage());
+            return new MergedLogPage(List.of(), null);
+        }
+    }
+
+    public String getInstanceId() {
+        return instance.getId();
+    }
+
+    /**
+     * Agregados mantidos incrementalmente; ver {@link LogAggregates#snapshot}.
+     * As contagens cobrem as entradas carregadas na inicialização e as registradas desde então.
+     */
+    public Map<String, Object> getStats(int topTemplates) {
+        return aggregates.snapshot(LocalDateTime.now(), topTemplates);
+    }
+
+    /**
+     * Assina as entradas registradas a partir de agora; ver {@link LogTailService}.
+     * Devolve {@code null} se o stream já tiver o máximo de assinantes.
+     */
+    public Subscription subscribe() {
+        return broadcaster.subscribe();
     }
 
-    public List<LogEntry> getSummary() {
-        return entries;
+    public int getEntryCount() {
+        return index.size();
     }
 
-    private void writeToFile() {
+    public int getQueueDepth() {
+        return pipeline.getQueueDepth();
+    }
+
+    public long getDroppedCount() {
+        return pipeline.getDroppedCount();
+    }
+
+    public long getWrittenCount() {
+        return pipeline.getWrittenCount();
+    }
+
+    public int getSubscriberCount() {
+        return broadcaster.getSubscriberCount();
+    }
+
+    /**
+     * Situação do destino de gravação para a verificação de prontidão: thread de
+     * escrita viva, último lote gravado, fila com espaço e diretório gravável.
+     */
+    public Map<String, Object> getSinkStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("writerHealthy", pipeline.isHealthy());
+        status.put("queueDepth", pipeline.getQueueDepth());
+        status.put("queueCapacity", pipeline.getCapacity());
+        status.put("directoryWritable", Files.isWritable(instance.getDir()));
+        status.put("failed", pipeline.getFailedCount());
+        status.put("dropped", pipeline.getDroppedCount());
+        status.put("preloaded", preloaded);
+        return status;
+    }
+
+    public boolean isSinkReady() {
+        return pipeline.isHealthy()
+                && pipeline.getQueueDepth() < pipeline.getCapacity()
+                && Files.isWritable(instance.getDir());
+    }
+
+    /** Métricas do pipeline de gravação; registradas automaticamente pelo actuator. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("logs.entries", this, LogSummaryService::getEntryCount)
+                .description("Log entries kept in memory")
+                .register(registry);
+        Gauge.builder("logs.queue.depth", pipeline, LogWriterPipeline::getQueueDepth)
+                .description("Log entries waiting for the writer thread")
+                .register(registry);
+        Gauge.builder("logs.stream.subscribers", broadcaster, LogTailBroadcaster::getSubscriberCount)
+                .register(registry);
+        FunctionCounter.builder("logs.stream.rejected", broadcaster, LogTailBroadcaster::getRejectedCount)
+                .description("Stream connections refused at the subscriber limit")
+                .register(registry);
+        FunctionCounter.builder("logs.written", pipeline, LogWriterPipeline::getWrittenCount)
+                .baseUnit("entries")
+                .register(registry);
+        FunctionCounter.builder("logs.dropped", pipeline, LogWriterPipeline::getDroppedCount)
+                .baseUnit("entries")
+                .register(registry);
+        FunctionCounter.builder("logs.failed", pipeline, LogWriterPipeline::getFailedCount)
+                .baseUnit("entries")
+                .register(registry);
+        FunctionCounter.builder("logs.written.bytes", store, SegmentedLogStore::getBytesWritten)
+                .baseUnit(BaseUnits.BYTES)
+                .description("Bytes appended to the log journals")
+                .register(registry);
+        FunctionTimer.builder("logs.write", pipeline, LogWriterPipeline::getBatchCount,
+                        LogWriterPipeline::getWriteNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent writing each batch to the log sinks")
+                .register(registry);
+    }
+
+    // Esvazia a fila no desligamento para não perder as últimas entradas
+    @PreDestroy
+    public void close() {
+        pipeline.close();
         try {
-            objectMapper.writeValue(file, entries);
+            instance.close();
         } catch (IOException e) {
-            System.err.println("Erro ao escrever o arquivo de log JSON: " + e.getMessage());
+            System.err.println("Erro ao liberar o diretório de logs da instância: " + e.getMessage());
         }
     }
 
-    private void loadLogsFromFile() {
-        if (file.exists()) {
-            try {
-                LogEntry[] saved = objectMapper.readValue(file, LogEntry[].class);
-                entries.addAll(List.of(saved));
-            } catch (IOException e) {
-                System.err.println("Erro ao carregar logs existentes: " + e.getMessage());
+    /**
+     * Migra os formatos antigos (array JSON, journal único e segmentos fora de
+     * {@code instances/}) para o diretório desta instância e abre os segmentos. A
+     * migração roda sob um lock de arquivo para que só uma das instâncias que sobem
+     * juntas fique com o histórico antigo.
+     */
+    private void openSegments(File dir) {
+        Path journalFile = new File(dir, "logs-summary.jsonl").toPath();
+        Path oldSegments = new File(dir, "segments").toPath();
+        try (FileChannel lockChannel = FileChannel.open(new File(dir, ".migration.lock").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = lockChannel.lock()) {
+            store.open();
+            if (store.segmentCount() == 0) {
+                if (Files.isDirectory(oldSegments)) {
+                    try (Stream<Path> files = Files.list(oldSegments)) {
+                        for (Path file : files.toList()) {
+                            Files.move(file, instance.getDir().resolve(file.getFileName()));
+                        }
+                    }
+                    Files.delete(oldSegments);
+                } else {
+                    try (LogJournal legacy = new LogJournal(journalFile, objectMapper, FsyncPolicy.ALWAYS, 0)) {
+                        legacy.migrateFrom(new File(dir, "logs-summary.json").toPath());
+                    }
+                    store.adopt(journalFile);
+                }
+                store.open();
             }
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir os segmentos de logs: " + e.getMessage());
+        }
+        index.advanceNextId(store.nextId());
+    }
+
+    /**
+     * Carrega em memória apenas as entradas mais recentes do disco. Entradas gravadas
+     * depois da abertura (carga em segundo plano) já estão no índice e são ignoradas.
+     */
+    private void loadRecent(int maxEntriesInMemory, long openedNextId) {
+        List<LogEntry> loaded = new ArrayList<>();
+        try {
+            store.loadRecent(maxEntriesInMemory, entry -> {
+                if (entry.id < openedNextId) {
+                    loaded.add(entry);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Erro ao carregar logs existentes: " + e.getMessage());
         }
+        index.prepend(loaded);
+        loaded.forEach(aggregates::record);
+        preloaded = true;
     }
 }
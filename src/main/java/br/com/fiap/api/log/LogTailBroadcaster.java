@@ -0,0 +1,114 @@
+package br.com.fiap.api.log;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Distribui as novas entradas de log para os assinantes do stream ao vivo. Cada
+ * assinante tem um buffer limitado; {@link #publish} nunca espera por um assinante
+ * lento, que é desconectado ou passa a perder entradas, conforme a política. O
+ * número de assinantes é limitado: cada um ocupa um buffer e uma thread.
+ */
+public class LogTailBroadcaster {
+
+    public enum SlowConsumerPolicy {
+        /** Encerra a assinatura quando o buffer enche. */
+        DISCONNECT,
+        /** Descarta as entradas que não cabem e informa quantas foram puladas. */
+        SAMPLE
+    }
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final SlowConsumerPolicy policy;
+    private final AtomicLong disconnected = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LogTailBroadcaster(int bufferSize, SlowConsumerPolicy policy) {
+        this(bufferSize, Integer.MAX_VALUE, policy);
+    }
+
+    public LogTailBroadcaster(int bufferSize, int maxSubscribers, SlowConsumerPolicy policy) {
+        if (bufferSize <= 0 || maxSubscribers <= 0) {
+            throw new IllegalArgumentException("Buffer size and max subscribers must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.policy = policy;
+    }
+
+    public void publish(LogEntry entry) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(entry);
+        }
+    }
+
+    /** Nova assinatura, ou {@code null} se já houver o máximo de assinantes. */
+    public synchronized Subscription subscribe() {
+        // Só aqui se inclui, então a checagem e a inclusão juntas não passam do limite
+        if (subscriptions.size() >= maxSubscribers) {
+            rejected.incrementAndGet();
+            return null;
+        }
+        Subscription subscription = new Subscription();
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long getDisconnectedCount() {
+        return disconnected.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final ArrayBlockingQueue<LogEntry> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicLong skipped = new AtomicLong();
+        private volatile boolean closed;
+
+        private void offer(LogEntry entry) {
+            if (closed || buffer.offer(entry)) {
+                return;
+            }
+            if (policy == SlowConsumerPolicy.DISCONNECT) {
+                disconnected.incrementAndGet();
+                close();
+            } else {
+                skipped.incrementAndGet();
+            }
+        }
+
+        /** Próxima entrada, ou {@code null} se nada chegou no tempo dado ou a assinatura foi encerrada. */
+        public LogEntry poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return closed ? null : buffer.poll(timeout, unit);
+        }
+
+        /** Quantidade de entradas descartadas desde a última chamada. */
+        public long takeSkipped() {
+            return skipped.getAndSet(0);
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.fiap.api.log;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.fiap.api.exception.StreamUnavailableException;
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+import br.com.fiap.api.log.LogTailBroadcaster.Subscription;
+
+/**
+ * Stream ao vivo dos logs via Server-Sent Events. Cada conexão é atendida por uma
+ * virtual thread que primeiro reenvia o histórico a partir do ponto pedido e depois
+ * passa a entregar as entradas novas do buffer da assinatura.
+ */
+@Service
+public class LogTailService {
+
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    @Autowired
+    private LogSummaryService logSummaryService;
+
+    @Value("${logs.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    /**
+     * @param after retoma depois deste id (ex.: cabeçalho Last-Event-ID)
+     * @param since retoma a partir deste instante, se {@code after} não for informado
+     * @param level filtra por nível (opcional)
+     * @throws StreamUnavailableException se o stream já tiver o máximo de assinantes
+     */
+    public SseEmitter open(Long after, LocalDateTime since, String level) {
+        // Assina antes do replay para não perder o que chegar enquanto o histórico é enviado
+        Subscription subscription = logSummaryService.subscribe();
+        if (subscription == null) {
+            throw new StreamUnavailableException("Too many log stream subscribers", RETRY_AFTER_SECONDS);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        Thread.ofVirtual().name("log-tail").start(() -> {
+            try {
+                long lastSent = replay(emitter, subscription, after, since, level);
+                deliver(emitter, subscription, lastSent, level);
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectou
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } finally {
+                subscription.close();
+            }
+        });
+        return emitter;
+    }
+
+    private long replay(SseEmitter emitter, Subscription subscription, Long after, LocalDateTime since, String level)
+            throws IOException {
+        if (after == null && since == null) {
+            return -1;
+        }
+        long lastSent = after == null ? -1 : after;
+        Long cursor = after;
+        do {
+            LogPage page = logSummaryService.query(level, after == null ? since : null, null, null, cursor, LogIndex.MAX_LIMIT);
+            for (LogEntry entry : page.items) {
+                send(emitter, entry);
+                lastSent = entry.id;
+            }
+            cursor = page.nextCursor;
+        } while (cursor != null && !subscription.isClosed());
+        return lastSent;
+    }
+
+    private void deliver(SseEmitter emitter, Subscription subscription, long lastSent, String level)
+            throws IOException, InterruptedException {
+        while (!subscription.isClosed()) {
+            LogEntry entry = subscription.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+
+            long skipped = subscription.takeSkipped();
+            if (skipped > 0) {
+                emitter.send(SseEmitter.event().name("gap").data(Map.of("skipped", skipped)));
+            }
+            if (entry == null) {
+                // Comentário SSE: mantém a conexão viva e detecta cliente desconectado
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                continue;
+            }
+            // Já enviada no replay
+            if (entry.id != null && entry.id <= lastSent) continue;
+            if (level != null && !level.equalsIgnoreCase(entry.level)) continue;
+
+            send(emitter, entry);
+        }
+    }
+
+    private static void send(SseEmitter emitter, LogEntry entry) throws IOException {
+        emitter.send(SseEmitter.event().id(String.valueOf(entry.id)).name("log").data(entry));
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.fiap.api.log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Fila limitada e sem locks entre as threads de requisição e uma thread dedicada
+ * de escrita. A thread de escrita drena a fila em lotes e entrega cada lote ao
+ * {@link LogSink} de uma vez, então quem chama {@link #offer} nunca espera por I/O
+ * (a não ser com a política {@link OverflowPolicy#BLOCK} e a fila cheia).
+ */
+public class LogWriterPipeline implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        /** Espera até abrir espaço na fila. */
+        BLOCK,
+        /** Descarta a entrada mais antiga da fila para aceitar a nova. */
+        DROP_OLDEST,
+        /** Descarta a entrada nova. */
+        DROP_NEW
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final ConcurrentLinkedQueue<LogEntry> queue = new ConcurrentLinkedQueue<>();
+    // Reserva de vagas: a fila em si não tem limite, o contador é que garante a capacidade
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private volatile boolean lastWriteFailed;
+
+    private final LogSink sink;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public LogWriterPipeline(LogSink sink, int capacity, int batchSize, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.sink = sink;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.writer = new Thread(this::runWriter, "log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Enfileira a entrada para gravação assíncrona.
+     *
+     * @return {@code false} se a entrada foi descartada
+     */
+    public boolean offer(LogEntry entry) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        while (!tryReserve()) {
+            switch (overflowPolicy) {
+                case DROP_NEW -> {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                case DROP_OLDEST -> {
+                    if (queue.poll() != null) {
+                        depth.decrementAndGet();
+                        dropped.incrementAndGet();
+                    }
+                }
+                case BLOCK -> {
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    if (closed) {
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                }
+            }
+        }
+        queue.offer(entry);
+        if (closed && queue.remove(entry)) {
+            // close() pode ter feito a última drenagem antes desta inclusão: a entrada
+            // ficaria na fila sem ser gravada nem contada. Se ela já não estiver lá, a
+            // thread de escrita a pegou
+            depth.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        LockSupport.unpark(writer);
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Lotes entregues ao sink (com sucesso ou não). */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /** Tempo total gasto em {@link LogSink#append}, em nanossegundos. */
+    public long getWriteNanos() {
+        return writeNanos.get();
+    }
+
+    /** {@code true} se a thread de escrita está rodando e o último lote foi gravado. */
+    public boolean isHealthy() {
+        return writer.isAlive() && !lastWriteFailed;
+    }
+
+    /**
+     * Para de aceitar entradas, grava o que ainda estiver na fila e fecha o sink.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            sink.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar o destino de logs: " + e.getMessage());
+        }
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = depth.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!depth.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void runWriter() {
+        List<LogEntry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            drainTo(batch);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                continue;
+            }
+            if (closed) {
+                // Uma última drenagem pega o que chegou entre o teste e o fechamento
+                drainTo(batch);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                writeBatch(batch);
+                continue;
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    private void drainTo(List<LogEntry> batch) {
+        LogEntry entry;
+        while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+            batch.add(entry);
+        }
+        depth.addAndGet(-batch.size());
+    }
+
+    private void writeBatch(List<LogEntry> batch) {
+        long start = System.nanoTime();
+        try {
+            sink.append(batch);
+            written.addAndGet(batch.size());
+            lastWriteFailed = false;
+        } catch (IOException | RuntimeException e) {
+            failed.addAndGet(batch.size());
+            lastWriteFailed = true;
+            System.err.println("Erro ao gravar lote de logs: " + e.getMessage());
+        }
+        writeNanos.addAndGet(System.nanoTime() - start);
+        batches.incrementAndGet();
+        batch.clear();
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.fiap.api.log;
+
+import java.util.List;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Página da visão combinada de todas as instâncias; ver {@link MergedLogReader}.
+ */
+public class MergedLogPage {
+    public final List<LogEntry> items;
+    public final String nextCursor;
+
+    public MergedLogPage(List<LogEntry> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.fiap.api.log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Visão única, em ordem de tempo, dos logs gravados por todas as instâncias que
+ * compartilham o diretório de logs. Lê os segmentos de cada instância só para leitura
+ * e intercala os resultados por (timestamp, instância, id).
+ * <p>
+ * Dentro de uma instância essa ordem é a dos ids ({@link SegmentedLogStore#append}),
+ * então cada instância é lida a partir da sua própria posição em relação ao cursor e
+ * só precisa entregar {@code limit} entradas. O cursor tem o formato
+ * {@code <epoch em nanos>_<id>_<instância>}.
+ */
+public class MergedLogReader {
+
+    // Intervalo mínimo entre releituras da lista de segmentos de um diretório que não mudou
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Comparator<LogEntry> ORDER = Comparator
+            .comparingLong((LogEntry e) -> epochNanos(e.timestamp))
+            .thenComparing(e -> e.instance)
+            .thenComparingLong(e -> e.id);
+
+    private final Path instancesRoot;
+    private final ObjectMapper objectMapper;
+    private final Map<String, InstanceStore> stores = new ConcurrentHashMap<>();
+
+    public MergedLogReader(Path instancesRoot, ObjectMapper objectMapper) {
+        this.instancesRoot = instancesRoot;
+        this.objectMapper = objectMapper;
+    }
+
+    public MergedLogPage query(String level, LocalDateTime from, LocalDateTime to, String contains,
+            String after, Integer limit) throws IOException {
+        int max = LogIndex.normalizeLimit(limit);
+        LogEntry cursor = parseCursor(after);
+
+        List<LogEntry> merged = new ArrayList<>();
+        for (String instance : listInstances()) {
+            SegmentedLogStore store = stores.computeIfAbsent(instance, InstanceStore::new).refreshed();
+            // Posição da instância em relação ao cursor: na mesma, depois do id; nas anteriores
+            // na ordem, timestamp maior; nas seguintes, timestamp maior ou igual
+            LocalDateTime start = from;
+            Long afterId = null;
+            if (cursor != null) {
+                int side = instance.compareTo(cursor.instance);
+                if (side == 0) {
+                    afterId = cursor.id;
+                }
+                LocalDateTime bound = side < 0 ? cursor.timestamp.plusNanos(1) : cursor.timestamp;
+                if (start == null || bound.isAfter(start)) {
+                    start = bound;
+                }
+            }
+            for (LogEntry entry : store.scan(level, start, to, contains, afterId, Long.MAX_VALUE, max)) {
+                entry.instance = instance;
+                if (cursor == null || ORDER.compare(entry, cursor) > 0) {
+                    merged.add(entry);
+                }
+            }
+        }
+        merged.sort(ORDER);
+        List<LogEntry> items = merged.size() > max ? new ArrayList<>(merged.subList(0, max)) : merged;
+
+        String nextCursor = null;
+        if (items.size() == max) {
+            LogEntry last = items.get(items.size() - 1);
+            nextCursor = epochNanos(last.timestamp) + "_" + last.id + "_" + last.instance;
+        }
+        return new MergedLogPage(items, nextCursor);
+    }
+
+    /**
+     * Segmentos de outra instância, só para leitura. A lista de segmentos é relida quando o
+     * diretório muda (segmento novo, comprimido ou apagado) ou a cada {@link #REFRESH_NANOS},
+     * e não a cada consulta; o segmento ativo é sempre lido do arquivo.
+     */
+    private final class InstanceStore {
+        final Path dir;
+        final SegmentedLogStore store;
+        volatile FileTime listedAt;
+        volatile long openedAt;
+
+        InstanceStore(String instance) {
+            this.dir = instancesRoot.resolve(instance);
+            this.store = SegmentedLogStore.readOnly(dir, objectMapper);
+        }
+
+        SegmentedLogStore refreshed() throws IOException {
+            FileTime modified = Files.isDirectory(dir) ? Files.getLastModifiedTime(dir) : null;
+            long now = System.nanoTime();
+            if (listedAt == null || !listedAt.equals(modified) || now - openedAt >= REFRESH_NANOS) {
+                store.open();
+                listedAt = modified;
+                openedAt = now;
+            }
+            return store;
+        }
+    }
+
+    private List<String> listInstances() throws IOException {
+        if (!Files.isDirectory(instancesRoot)) {
+            return List.of();
+        }
+        try (Stream<Path> dirs = Files.list(instancesRoot)) {
+            return dirs.filter(Files::isDirectory).map(p -> p.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static LogEntry parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts = cursor.split("_", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            long nanos = Long.parseLong(parts[0]);
+            LogEntry entry = new LogEntry();
+            entry.timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                    (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+            entry.id = Long.parseLong(parts[1]);
+            entry.instance = parts[2];
+            return entry;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static long epochNanos(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return Long.MIN_VALUE;
+        }
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + timestamp.getNano();
+    }
+}
@@ -0,0 +1,633 @@
+package br.com.fiap.api.log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.api.log.LogJournal.FsyncPolicy;
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+/**
+ * Armazenamento dos logs em segmentos JSON Lines que giram por tamanho ou idade.
+ * <p>
+ * Cada segmento se chama {@code segment-<primeiro id>.jsonl}; ao ser fechado ganha um
+ * {@code .idx} com intervalo de ids e de tempo e quantidade de entradas, e é comprimido
+ * em segundo plano para {@code .jsonl.gz}. Na inicialização só os nomes dos arquivos
+ * são listados: o conteúdo é lido sob demanda, via memory mapping para os segmentos
+ * não comprimidos. O {@code .idx} guarda também a posição de uma linha a cada
+ * {@link LogSegment#OFFSET_INTERVAL} entradas, e a leitura para assim que a consulta
+ * tem o que precisa.
+ */
+public class SegmentedLogStore implements LogSink {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{20})\\.(jsonl|jsonl\\.gz|idx)");
+
+    private final Path dir;
+    private final ObjectMapper objectMapper;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final long maxSegmentBytes;
+    private final Duration maxSegmentAge;
+    private final boolean readOnly;
+    private final ExecutorService compressor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "log-segment-compressor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Em ordem crescente de firstId; o último é o segmento ativo
+    private final List<SegmentRef> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong linesParsed = new AtomicLong();
+    // Lock em vez de synchronized: as operações fazem I/O e podem rodar em virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private LogJournal activeJournal;
+    private long nextId;
+    private LocalDateTime lastTimestamp;
+
+    public SegmentedLogStore(Path dir, ObjectMapper objectMapper, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis,
+            long maxSegmentBytes, Duration maxSegmentAge) {
+        this(dir, objectMapper, fsyncPolicy, fsyncIntervalMillis, maxSegmentBytes, maxSegmentAge, false);
+    }
+
+    private SegmentedLogStore(Path dir, ObjectMapper objectMapper, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis,
+            long maxSegmentBytes, Duration maxSegmentAge, boolean readOnly) {
+        this.readOnly = readOnly;
+        this.dir = dir;
+        this.objectMapper = objectMapper;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegmentAge = maxSegmentAge;
+    }
+
+    /**
+     * Abre os segmentos de outra instância só para leitura: nada é gravado, fechado
+     * ou comprimido, e {@link #open()} pode ser chamado de novo para ver segmentos novos.
+     * Nesse modo {@link #nextId()} não é mantido.
+     */
+    public static SegmentedLogStore readOnly(Path dir, ObjectMapper objectMapper) {
+        return new SegmentedLogStore(dir, objectMapper, FsyncPolicy.NEVER, 0, Long.MAX_VALUE, null, true);
+    }
+
+    /**
+     * Lista os segmentos existentes e recupera o segmento ativo (o único que é lido
+     * por inteiro na inicialização, e cujo tamanho é limitado por {@code maxSegmentBytes}).
+     */
+    public void open() throws IOException {
+        lock.lock();
+        try {
+            if (readOnly) {
+                openReadOnly();
+                return;
+            }
+            Files.createDirectories(dir);
+            listSegments();
+
+            // Segmentos sem .idx ficaram abertos (queda antes de fechar): recupera e fecha todos menos o último
+            for (int i = 0; i < segments.size(); i++) {
+                SegmentRef ref = segments.get(i);
+                if (Files.exists(indexFile(ref.firstId))) {
+                    continue;
+                }
+                ref.meta = recover(ref.firstId);
+                if (i < segments.size() - 1) {
+                    seal(ref);
+                }
+            }
+
+            if (segments.isEmpty()) {
+                nextId = 0;
+                return;
+            }
+            SegmentRef last = activeRef();
+            LogSegment meta = last.meta();
+            nextId = Math.max(last.firstId, meta.lastId + 1);
+            lastTimestamp = meta.maxTimestamp;
+            if (!meta.sealed) {
+                activeJournal = journalFor(last.firstId);
+            }
+            // Segmentos fechados que ainda não foram comprimidos (ex.: queda durante a compressão)
+            for (SegmentRef ref : segments) {
+                if ((ref != last || meta.sealed) && Files.exists(dataFile(ref.firstId))) {
+                    scheduleCompression(ref);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void openReadOnly() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            segments.clear();
+            return;
+        }
+        // Sem nextId: recalculá-lo releria o segmento ativo inteiro a cada abertura
+        listSegments();
+    }
+
+    private void listSegments() throws IOException {
+        List<Long> firstIds;
+        try (Stream<Path> files = Files.list(dir)) {
+            firstIds = files.map(p -> SEGMENT_NAME.matcher(p.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> Long.parseLong(m.group(1)))
+                    .distinct()
+                    .sorted()
+                    .toList();
+        }
+        // Cada passo é atômico e deixa uma lista válida para as leituras concorrentes; os
+        // metadados já lidos são mantidos, menos os do último segmento, que pode ter crescido
+        Set<Long> present = new HashSet<>(firstIds);
+        segments.removeIf(ref -> !present.contains(ref.firstId));
+        if (!segments.isEmpty()) {
+            int last = segments.size() - 1;
+            segments.set(last, new SegmentRef(segments.get(last).firstId));
+        }
+        long known = segments.isEmpty() ? Long.MIN_VALUE : activeRef().firstId;
+        List<SegmentRef> added = new ArrayList<>();
+        for (long firstId : firstIds) {
+            if (firstId > known) {
+                added.add(new SegmentRef(firstId));
+            }
+        }
+        if (segments.size() + added.size() != firstIds.size()) {
+            // Segmento novo no meio da lista (não acontece ao girar): relista tudo
+            segments.clear();
+            firstIds.forEach(firstId -> segments.add(new SegmentRef(firstId)));
+            return;
+        }
+        segments.addAll(added);
+    }
+
+    /**
+     * Adota um journal de arquivo único como primeiro segmento, caso o armazenamento
+     * ainda esteja vazio.
+     */
+    public void adopt(Path journalFile) throws IOException {
+        lock.lock();
+        try {
+            if (!Files.exists(journalFile) || !segments.isEmpty()) {
+                return;
+            }
+            Files.createDirectories(dir);
+            Files.move(journalFile, dataFile(0), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Próximo id a ser atribuído, considerando tudo que já está em disco. */
+    public long nextId() {
+        lock.lock();
+        try {
+            return nextId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Menor id guardado em disco, ou {@link #nextId()} se não houver segmentos. */
+    public long firstId() {
+        return segments.isEmpty() ? nextId : segments.get(0).firstId;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Entrega, em ordem, as entradas dos segmentos mais recentes até completar
+     * {@code maxEntries} (pode passar um pouco, pois segmentos são lidos inteiros).
+     */
+    public void loadRecent(int maxEntries, Consumer<LogEntry> consumer) throws IOException {
+        List<SegmentRef> snapshot = new ArrayList<>(segments);
+        int first = snapshot.size();
+        long total = 0;
+        while (first > 0 && total < maxEntries) {
+            first--;
+            total += snapshot.get(first).meta().count;
+        }
+        for (int i = first; i < snapshot.size(); i++) {
+            read(snapshot.get(i), Long.MIN_VALUE, entry -> {
+                consumer.accept(entry);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Busca nos segmentos em disco as entradas com id no intervalo ({@code after}, {@code beforeId}).
+     * Segmentos fora do intervalo de ids ou de tempo são descartados pelo nome e pelo {@code .idx},
+     * sem abrir os dados; dentro do segmento a leitura começa na marca de posição anterior a
+     * {@code after} e para ao completar {@code limit}.
+     */
+    public List<LogEntry> scan(String level, LocalDateTime from, LocalDateTime to, String contains,
+            Long after, long beforeId, int limit) throws IOException {
+        return scan(level, from, to, contains, after, beforeId, limit, Long.MAX_VALUE).items;
+    }
+
+    /**
+     * Como {@link #scan(String, LocalDateTime, LocalDateTime, String, Long, long, int)}, mas
+     * examina no máximo {@code maxScanned} entradas: ao chegar nisso devolve o que achou com
+     * o cursor na última entrada examinada, como {@link LogIndex#query}. Sem o limite, o
+     * cursor vem nulo.
+     */
+    public LogPage scan(String level, LocalDateTime from, LocalDateTime to, String contains,
+            Long after, long beforeId, int limit, long maxScanned) throws IOException {
+        long startId = after == null ? Long.MIN_VALUE : after + 1;
+        String wantedLevel = level == null ? null : LogIndex.normalizeLevel(level);
+        List<SegmentRef> snapshot = new ArrayList<>(segments);
+        List<LogEntry> result = new ArrayList<>();
+        // Entradas examinadas e a última delas
+        long[] scanned = {0, -1};
+
+        for (int i = 0; i < snapshot.size() && result.size() < limit && scanned[0] < maxScanned; i++) {
+            SegmentRef ref = snapshot.get(i);
+            if (ref.firstId >= beforeId) break;
+            long nextFirstId = i + 1 < snapshot.size() ? snapshot.get(i + 1).firstId : Long.MAX_VALUE;
+            if (nextFirstId <= startId) continue;
+            if (ref != snapshot.get(snapshot.size() - 1) && !ref.meta().overlaps(from, to)) continue;
+
+            read(ref, startId, entry -> {
+                if (entry.id >= beforeId) return false;
+                if (entry.id < startId) return true;
+                scanned[0]++;
+                scanned[1] = entry.id;
+                if (wantedLevel != null && !wantedLevel.equals(LogIndex.normalizeLevel(entry.level))) return scanned[0] < maxScanned;
+                if (from != null && (entry.timestamp == null || entry.timestamp.isBefore(from))) return scanned[0] < maxScanned;
+                if (to != null && (entry.timestamp == null || !entry.timestamp.isBefore(to))) return scanned[0] < maxScanned;
+                if (LogIndex.matches(entry, contains)) {
+                    result.add(entry);
+                }
+                return result.size() < limit && scanned[0] < maxScanned;
+            });
+        }
+        Long nextCursor = result.size() < limit && scanned[0] >= maxScanned ? scanned[1] : null;
+        return new LogPage(result, nextCursor);
+    }
+
+    /**
+     * Grava o lote no segmento ativo, girando antes para um novo segmento se o
+     * ativo já passou do tamanho ou da idade máxima. Um segmento pode passar do
+     * limite em no máximo um lote.
+     * <p>
+     * Ids e timestamps vêm de {@link LogIndex#add}, que os atribui antes de a entrada
+     * ficar visível. As entradas do lote não são alteradas: uma sem id, com id fora de
+     * ordem ou com timestamp anterior ao último gravado é gravada como cópia corrigida.
+     * Assim os ids crescem no disco e (timestamp, id) e id dão a mesma ordem, o que
+     * permite ao {@link MergedLogReader} continuar cada instância a partir do cursor.
+     */
+    @Override
+    public void append(List<LogEntry> batch) throws IOException {
+        lock.lock();
+        try {
+            if (readOnly) {
+                throw new IllegalStateException("Log store is read-only");
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (activeJournal == null || shouldRoll()) {
+                roll(batch.get(0));
+            }
+            LogSegment meta = activeRef().meta();
+            List<LogEntry> records = new ArrayList<>(batch.size());
+            for (LogEntry entry : batch) {
+                boolean idOutOfOrder = entry.id == null || entry.id < nextId;
+                boolean clockBehind = entry.timestamp != null && lastTimestamp != null
+                        && entry.timestamp.isBefore(lastTimestamp);
+                LogEntry record = entry;
+                if (idOutOfOrder || clockBehind) {
+                    record = new LogEntry();
+                    record.id = idOutOfOrder ? nextId : entry.id;
+                    record.level = entry.level;
+                    record.message = entry.message;
+                    record.timestamp = clockBehind ? lastTimestamp : entry.timestamp;
+                }
+                nextId = record.id + 1;
+                if (record.timestamp != null) {
+                    lastTimestamp = record.timestamp;
+                }
+                meta.track(record);
+                records.add(record);
+            }
+            long sizeBefore = activeJournal.size();
+            meta.trackOffset(records.get(0).id, sizeBefore);
+            activeJournal.append(records);
+            bytesWritten.addAndGet(activeJournal.size() - sizeBefore);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Linhas desserializadas pelas leituras de segmentos desde a abertura. */
+    long getLinesParsed() {
+        return linesParsed.get();
+    }
+
+    /** Bytes gravados nos journals por esta instância desde a abertura. */
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (activeJournal != null) {
+                activeJournal.close();
+                activeJournal = null;
+            }
+            compressor.shutdown();
+            try {
+                compressor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean shouldRoll() throws IOException {
+        LogSegment meta = activeRef().meta();
+        if (meta.count == 0) {
+            return false;
+        }
+        return activeJournal.size() >= maxSegmentBytes
+                || (maxSegmentAge != null && meta.createdAt.plus(maxSegmentAge).isBefore(LocalDateTime.now()));
+    }
+
+    private void roll(LogEntry firstEntry) throws IOException {
+        if (activeJournal != null) {
+            activeJournal.close();
+            activeJournal = null;
+            SegmentRef previous = activeRef();
+            seal(previous);
+            scheduleCompression(previous);
+        }
+        long firstId = firstEntry.id != null && firstEntry.id >= nextId ? firstEntry.id : nextId;
+        SegmentRef ref = new SegmentRef(firstId);
+        ref.meta = new LogSegment(firstId);
+        segments.add(ref);
+        activeJournal = journalFor(firstId);
+    }
+
+    private SegmentRef activeRef() {
+        return segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    }
+
+    private void seal(SegmentRef ref) throws IOException {
+        LogSegment meta = ref.meta();
+        meta.sealed = true;
+        writeIndex(meta);
+    }
+
+    private void scheduleCompression(SegmentRef ref) {
+        compressor.submit(() -> {
+            try {
+                compress(ref);
+            } catch (IOException e) {
+                System.err.println("Erro ao comprimir segmento de logs: " + e.getMessage());
+            }
+        });
+    }
+
+    private void compress(SegmentRef ref) throws IOException {
+        LogSegment meta = ref.meta();
+        Path source = dataFile(ref.firstId);
+        if (meta.compressed || !Files.exists(source)) {
+            return;
+        }
+        Path target = compressedFile(ref.firstId);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (InputStream in = Files.newInputStream(source);
+                OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+            in.transferTo(out);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        meta.compressed = true;
+        writeIndex(meta);
+        Files.delete(source);
+    }
+
+    // Relê um segmento que não foi fechado para reconstruir os metadados
+    private LogSegment recover(long firstId) throws IOException {
+        LogSegment meta = new LogSegment(firstId);
+        readData(firstId, false, firstId, 0, entry -> {
+            meta.track(entry);
+            return true;
+        });
+        return meta;
+    }
+
+    /**
+     * Entrega as entradas do segmento a partir da marca de posição anterior a {@code fromId},
+     * enquanto {@code visitor} devolver {@code true}.
+     */
+    private void read(SegmentRef ref, long fromId, Predicate<LogEntry> visitor) throws IOException {
+        // Sem metadados carregados (segmento ativo de outra instância) lê desde o início, sem recuperá-los
+        LogSegment meta = ref.meta;
+        long[] seek = meta != null && ref.firstId < fromId ? meta.seekTo(fromId) : null;
+        long startId = seek != null ? seek[0] : ref.firstId;
+        long position = seek != null ? seek[1] : 0;
+        // O arquivo decide, não o .idx: outra instância pode ter comprimido o segmento depois da leitura do .idx
+        boolean compressed = Files.exists(compressedFile(ref.firstId));
+        if (!compressed && readData(ref.firstId, false, startId, position, visitor)) {
+            return;
+        }
+        // Comprimido, ou comprimido (e o original apagado) entre a checagem e a abertura
+        if (Files.exists(compressedFile(ref.firstId))) {
+            readData(ref.firstId, true, startId, position, visitor);
+        }
+    }
+
+    /**
+     * Lê as linhas a partir da posição {@code position} (em bytes dos dados não comprimidos).
+     *
+     * @return {@code false} se o arquivo não existe
+     */
+    private boolean readData(long firstId, boolean compressed, long startId, long position,
+            Predicate<LogEntry> visitor) throws IOException {
+        long[] expected = { startId };
+        Predicate<LogEntry> withIds = entry -> {
+            // Linhas antigas (anteriores aos ids persistidos) recebem id pela posição
+            if (entry.id == null || entry.id < expected[0]) {
+                entry.id = expected[0];
+            }
+            expected[0] = entry.id + 1;
+            return visitor.test(entry);
+        };
+
+        if (compressed) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(compressedFile(firstId)))) {
+                // Ainda descomprime até a posição, mas sem desserializar as linhas puladas
+                in.skipNBytes(position);
+                readLines(in, withIds);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+            return true;
+        }
+
+        Path file = dataFile(firstId);
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        // Aberto, o arquivo continua legível mesmo que a compressão o apague
+        try (channel) {
+            long size = channel.size();
+            if (size <= position) {
+                return true;
+            }
+            if (size > Integer.MAX_VALUE) {
+                // Journal adotado maior que um mapeamento: lê em streaming
+                try (InputStream in = Files.newInputStream(file)) {
+                    in.skipNBytes(position);
+                    readLines(in, withIds);
+                }
+                return true;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, size - position);
+            byte[] line = new byte[256];
+            int length = 0;
+            while (mapped.hasRemaining()) {
+                byte b = mapped.get();
+                if (b == '\n') {
+                    if (!accept(line, length, withIds)) {
+                        return true;
+                    }
+                    length = 0;
+                } else {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = b;
+                }
+            }
+            // Última linha sem '\n' (escrita interrompida) só é aceita se for um JSON completo
+            accept(line, length, withIds);
+            return true;
+        }
+    }
+
+    private void readLines(InputStream in, Predicate<LogEntry> visitor) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            if (!accept(bytes, bytes.length, visitor)) {
+                return;
+            }
+        }
+    }
+
+    // Devolve false quando o visitante não quer mais entradas
+    private boolean accept(byte[] bytes, int length, Predicate<LogEntry> visitor) {
+        if (length == 0) {
+            return true;
+        }
+        LogEntry entry;
+        try {
+            entry = objectMapper.readValue(bytes, 0, length, LogEntry.class);
+        } catch (IOException e) {
+            System.err.println("Linha inválida ignorada no segmento de logs: " + e.getMessage());
+            return true;
+        }
+        linesParsed.incrementAndGet();
+        return visitor.test(entry);
+    }
+
+    private LogJournal journalFor(long firstId) {
+        return new LogJournal(dataFile(firstId), objectMapper, fsyncPolicy, fsyncIntervalMillis);
+    }
+
+    private void writeIndex(LogSegment meta) throws IOException {
+        Path target = indexFile(meta.firstId);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), meta);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private LogSegment readIndex(long firstId) throws IOException {
+        return objectMapper.readValue(indexFile(firstId).toFile(), LogSegment.class);
+    }
+
+    private Path dataFile(long firstId) {
+        return dir.resolve(baseName(firstId) + ".jsonl");
+    }
+
+    private Path compressedFile(long firstId) {
+        return dir.resolve(baseName(firstId) + ".jsonl.gz");
+    }
+
+    private Path indexFile(long firstId) {
+        return dir.resolve(baseName(firstId) + ".idx");
+    }
+
+    private static String baseName(long firstId) {
+        return String.format("segment-%020d", firstId);
+    }
+
+    /** Segmento conhecido pelo nome; os metadados são lidos do .idx na primeira vez que forem usados. */
+    private final class SegmentRef {
+        final long firstId;
+        final ReentrantLock loading = new ReentrantLock();
+        volatile LogSegment meta;
+
+        SegmentRef(long firstId) {
+            this.firstId = firstId;
+        }
+
+        LogSegment meta() throws IOException {
+            if (meta == null) {
+                loading.lock();
+                try {
+                    if (meta == null) {
+                        meta = Files.exists(indexFile(firstId)) ? readIndex(firstId) : recover(firstId);
+                    }
+                } finally {
+                    loading.unlock();
+                }
+            }
+            return meta;
+        }
+    }
+}
@@ -7,7 +7,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -22,10 +24,13 @@ import lombok.Setter;
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence com blocos de 50 ids (V6): ao contrário de IDENTITY, permite INSERTs em lote
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id_user;
     @NotBlank(message = "Client name is mandatory!") 
     private String clientName;
+    @Column(unique = true)
     private String email;
     private LocalDate registerDate = LocalDate.now();
     @Min(value = 0, message = "Bet maximum value cannot be less than 0.") 
@@ -36,6 +41,8 @@ public class User {
     @NotBlank(message = "Client password is mandatory!") 
     private String password;
     private String userPixKey;
+    @Version
+    private Long version;
     
 }
 
@@ -1,12 +1,33 @@
 package br.com.fiap.api.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.fiap.api.model.User;
 
+// Consultas em transação somente leitura: com réplicas configuradas, vão a elas
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
 	Optional<User> findByUsername(String username); //o nome do método deve possuir o nome exato do atributo
 	Optional<User> findByEmail(String email); 
-}
\ No newline at end of file
+	// Confirmação de duplicados no cadastro (índices de username e email)
+	boolean existsByUsername(String username);
+	boolean existsByEmail(String email);
+
+	// Paginação por chave: usa o índice da PK em vez de OFFSET
+	@Query("select u from User u where u.id_user > :after order by u.id_user")
+	List<User> findPageAfter(@Param("after") long after, Limit limit);
+
+	@Query("select u.username from User u where u.username in :usernames")
+	List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+	@Query("select u.email from User u where u.email in :emails")
+	List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+}
@@ -0,0 +1,95 @@
+package br.com.fiap.api.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Limite de tentativas de login e de troca de senha por username e por IP do
+ * cliente ({@link TokenBucketLimiter}). É checado antes de qualquer acesso ao banco
+ * ou hashing: uma rajada de credential stuffing recebe 429 sem custar BCrypt.
+ */
+@Service
+public class LoginRateLimiter implements MeterBinder {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean enabled;
+    private final TokenBucketLimiter byUsername;
+    private final TokenBucketLimiter byIp;
+
+    public LoginRateLimiter(
+            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${auth.rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${auth.rate-limit.username.refill-per-minute:5}") int usernameRefillPerMinute,
+            @Value("${auth.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${auth.rate-limit.ip.refill-per-minute:60}") int ipRefillPerMinute,
+            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${auth.rate-limit.overflow-buckets:1024}") int overflowBuckets) {
+        if (usernameRefillPerMinute <= 0 || ipRefillPerMinute <= 0) {
+            throw new IllegalArgumentException("Rate limit refill must be positive");
+        }
+        this.enabled = enabled;
+        this.byUsername = new TokenBucketLimiter(usernameCapacity, NANOS_PER_MINUTE / usernameRefillPerMinute,
+                maxKeys, overflowBuckets);
+        this.byIp = new TokenBucketLimiter(ipCapacity, NANOS_PER_MINUTE / ipRefillPerMinute, maxKeys, overflowBuckets);
+    }
+
+    /**
+     * Consome uma tentativa do IP e do username.
+     *
+     * @throws TooManyRequestsException se algum dos dois estiver sem tentativas
+     */
+    public void check(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long wait = byIp.tryAcquire(clientIp, now);
+        if (wait == 0 && username != null) {
+            wait = byUsername.tryAcquire(username, now);
+        }
+        if (wait > 0) {
+            long retryAfterSeconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new TooManyRequestsException("Too many attempts, try again later.", retryAfterSeconds);
+        }
+    }
+
+    // Chaves com bucket cheio não mudam nenhuma decisão: só ocupam memória
+    @Scheduled(fixedDelayString = "${auth.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        byUsername.evictIdle(now);
+        byIp.evictIdle(now);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "username", byUsername);
+        bind(registry, "ip", byIp);
+    }
+
+    private static void bind(MeterRegistry registry, String key, TokenBucketLimiter limiter) {
+        FunctionCounter.builder("auth.rate.limit.requests", limiter, TokenBucketLimiter::getAllowedCount)
+                .tag("key", key).tag("result", "allowed")
+                .register(registry);
+        FunctionCounter.builder("auth.rate.limit.requests", limiter, TokenBucketLimiter::getRejectedCount)
+                .tag("key", key).tag("result", "rejected")
+                .register(registry);
+        FunctionCounter.builder("auth.rate.limit.overflowed", limiter, TokenBucketLimiter::getOverflowedCount)
+                .description("New keys sharing hashed buckets because max-keys was reached")
+                .tag("key", key)
+                .register(registry);
+        Gauge.builder("auth.rate.limit.keys", limiter, TokenBucketLimiter::getKeys)
+                .tag("key", key)
+                .register(registry);
+    }
+}
@@ -0,0 +1,244 @@
+package br.com.fiap.api.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.api.exception.HashingUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Executa o hashing e a verificação de senhas (BCrypt) em um pool próprio, do
+ * tamanho da quantidade de CPUs e com fila limitada. Rajadas de login ficam
+ * restritas a esse pool em vez de ocupar as threads do Tomcat; com o pool
+ * saturado a chamada falha na hora com {@link HashingUnavailableException} (503).
+ * O {@code PasswordEncoder} principal da aplicação delega para cá, então o HTTP Basic
+ * também passa pelo pool.
+ */
+@Service
+public class PasswordHashingService implements MeterBinder {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHashingService(
+            @Qualifier("bcryptPasswordEncoder") PasswordEncoder passwordEncoder,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.hashing.max-wait-ms:2000}") long maxWaitMillis,
+            @Value("${auth.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Hashing queue capacity must be positive");
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.passwordEncoder = passwordEncoder;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash de várias senhas em paralelo no mesmo pool, para importações em lote. Mantém
+     * no máximo uma senha em andamento por thread do pool, então logins continuam
+     * sendo atendidos entre os hashes do lote; em vez de falhar com o pool cheio, espera vaga.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                inFlight.acquire();
+                Callable<String> task = measured(() -> passwordEncoder.encode(rawPassword));
+                futures.add(submitWhenAccepted(() -> {
+                    try {
+                        return task.call();
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw unavailable();
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw propagate(e);
+        }
+    }
+
+    private <T> Future<T> submitWhenAccepted(Callable<T> task) throws InterruptedException {
+        while (true) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    throw unavailable();
+                }
+                // Fila ocupada por logins; o lote cede a vez
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private <T> T submit(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(measured(hashing));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw unavailable();
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Não adianta o resultado depois que o cliente desistiu
+            future.cancel(true);
+            timedOut.increment();
+            throw unavailable();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw unavailable();
+        } catch (ExecutionException e) {
+            throw propagate(e);
+        }
+    }
+
+    /** Envolve o hash medindo o tempo na fila (até começar a rodar) e o tempo de hashing. */
+    private <T> Callable<T> measured(Callable<T> hashing) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            record(queueWaitNanos, maxQueueWaitNanos, startedAt - submittedAt);
+            try {
+                return hashing.call();
+            } finally {
+                record(hashNanos, maxHashNanos, System.nanoTime() - startedAt);
+                completed.increment();
+            }
+        };
+    }
+
+    private static RuntimeException propagate(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    private HashingUnavailableException unavailable() {
+        return new HashingUnavailableException("Password hashing is saturated, try again later.", retryAfterSeconds);
+    }
+
+    private static void record(LongAdder total, LongAccumulator max, long nanos) {
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Contadores do executor. O tempo na fila e o tempo de hashing são medidos
+     * separadamente: fila alta com hashing estável indica falta de capacidade.
+     */
+    public Map<String, Object> getStats() {
+        long count = completed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("completed", count);
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("avgQueueWaitMs", count == 0 ? 0.0 : queueWaitNanos.sum() / 1e6 / count);
+        stats.put("maxQueueWaitMs", maxQueueWaitNanos.get() / 1e6);
+        stats.put("avgHashMs", count == 0 ? 0.0 : hashNanos.sum() / 1e6 / count);
+        stats.put("maxHashMs", maxHashNanos.get() / 1e6);
+        return stats;
+    }
+
+    /** Os mesmos contadores de {@link #getStats()} como métricas; registradas automaticamente pelo actuator. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("auth.hashing.duration", this, s -> s.completed.sum(), s -> s.hashNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("BCrypt hashing time, excluding queue wait")
+                .register(registry);
+        FunctionTimer.builder("auth.hashing.queue.wait", this, s -> s.completed.sum(), s -> s.queueWaitNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time hashing tasks waited for a pool thread")
+                .register(registry);
+        FunctionCounter.builder("auth.hashing.rejected", rejected, LongAdder::sum)
+                .tag("reason", "queue_full")
+                .register(registry);
+        FunctionCounter.builder("auth.hashing.rejected", timedOut, LongAdder::sum)
+                .tag("reason", "timeout")
+                .register(registry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        Gauge.builder("auth.hashing.queued", executor, e -> e.getQueue().size())
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
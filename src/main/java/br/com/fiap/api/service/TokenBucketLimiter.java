@@ -0,0 +1,132 @@
+package br.com.fiap.api.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket por chave, sem locks: até {@code capacity} chamadas seguidas, repondo
+ * um token a cada {@code refillNanos}. Cada chave guarda um único {@code long}, o
+ * instante em que o bucket estará cheio de novo (forma GCRA do token bucket), e a
+ * decisão é um compare-and-set nele. Bucket cheio equivale a chave ausente, então
+ * remover as chaves ociosas não muda nenhuma decisão. Acima de {@code maxKeys}
+ * chaves (ex.: rajada de usernames aleatórios), as novas dividem um número fixo de
+ * buckets por hash até a próxima varredura ({@link #evictIdle}, agendada fora das
+ * requisições): a memória fica limitada, o custo por chamada continua constante e o
+ * limite continua valendo (mais restrito para quem colidir).
+ */
+public class TokenBucketLimiter {
+
+    // Bucket cheio (nunca usado ou ocioso)
+    private static final long FULL = Long.MIN_VALUE;
+    // Bucket removido da tabela: quem o tinha em mãos busca (ou cria) o atual
+    private static final long EVICTED = Long.MIN_VALUE + 1;
+
+    private final long refillNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong[] overflow;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public TokenBucketLimiter(int capacity, long refillNanos, int maxKeys, int overflowBuckets) {
+        if (capacity <= 0 || refillNanos <= 0) {
+            throw new IllegalArgumentException("Capacity and refill interval must be positive");
+        }
+        if (maxKeys < 0 || overflowBuckets <= 0 || Integer.bitCount(overflowBuckets) != 1) {
+            throw new IllegalArgumentException("Overflow buckets must be a positive power of two");
+        }
+        this.refillNanos = refillNanos;
+        this.burstNanos = (capacity - 1) * refillNanos;
+        this.maxKeys = maxKeys;
+        this.overflow = new AtomicLong[overflowBuckets];
+        for (int i = 0; i < overflowBuckets; i++) {
+            overflow[i] = new AtomicLong(FULL);
+        }
+    }
+
+    /**
+     * Consome um token de {@code key}.
+     *
+     * @return 0 se a chamada foi aceita; senão, quanto falta (em nanos) para o próximo token
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = bucket(key, nowNanos);
+        while (true) {
+            long fullAt = bucket.get();
+            if (fullAt == EVICTED) {
+                buckets.remove(key, bucket);
+                bucket = bucket(key, nowNanos);
+                continue;
+            }
+            long base = fullAt == FULL || fullAt - nowNanos < 0 ? nowNanos : fullAt;
+            // Aceita enquanto o bucket não passar de capacity tokens devidos
+            long wait = base - burstNanos - nowNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, base + refillNanos)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            overflowed.increment();
+            int hash = key.hashCode();
+            return overflow[(hash ^ (hash >>> 16)) & (overflow.length - 1)];
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(FULL));
+    }
+
+    /**
+     * Remove as chaves com bucket cheio, uma thread por vez. O bucket é marcado com
+     * compare-and-set antes de sair da tabela: se alguém consumiu um token no meio
+     * tempo a marcação falha e a chave fica, então nenhum consumo se perde.
+     */
+    public void evictIdle(long nowNanos) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+                AtomicLong bucket = entry.getValue();
+                long fullAt = bucket.get();
+                if ((fullAt == FULL || fullAt - nowNanos <= 0) && bucket.compareAndSet(fullAt, EVICTED)) {
+                    buckets.remove(entry.getKey(), bucket);
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public int getKeys() {
+        return buckets.size();
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getOverflowedCount() {
+        return overflowed.sum();
+    }
+}
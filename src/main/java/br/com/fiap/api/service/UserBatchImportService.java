@@ -0,0 +1,308 @@
+package br.com.fiap.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.api.dto.UserBatchResult;
+import br.com.fiap.api.dto.UserBatchResult.Row;
+import br.com.fiap.api.dto.UserBatchResult.Status;
+import br.com.fiap.api.dto.UserCreateDTO;
+import br.com.fiap.api.log.LogSummaryService;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+/**
+ * Importação de usuários em lote. O array do corpo é lido elemento a elemento,
+ * em blocos de {@code users.batch.size}: cada bloco é validado, tem as senhas
+ * criptografadas em paralelo no pool de hashing e é gravado com INSERTs em lote
+ * numa única transação. Se o bloco falhar, as linhas são gravadas uma a uma para
+ * apontar exatamente quais falharam. Usernames e e-mails já cadastrados são
+ * rejeitados antes do hash; só os que o {@link UserUniquenessIndex} não descarta
+ * são conferidos no banco.
+ */
+@Service
+public class UserBatchImportService {
+    private static final Logger log = LoggerFactory.getLogger(UserBatchImportService.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LogSummaryService logSummaryService;
+
+    @Autowired
+    private UserChangeCounter userChangeCounter;
+
+    @Autowired
+    private UserUniquenessIndex userUniquenessIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${users.batch.size:500}")
+    private int batchSize;
+
+    public UserBatchResult importUsers(InputStream body) throws IOException {
+        UserBatchResult result = new UserBatchResult();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<Candidate> chunk = new ArrayList<>(batchSize);
+        int index = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Request body must be a JSON array of users");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Unexpected end of the users array");
+                }
+                chunk.add(parse(index++, parser.readValueAsTree(), seenUsernames, seenEmails));
+                if (chunk.size() >= batchSize) {
+                    process(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            String message = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+            if (index == 0) {
+                throw new IllegalArgumentException("Malformed users array: " + message);
+            }
+            // Mantém o que já foi lido; o cliente reenvia a partir do índice informado
+            result.setError("Malformed users array at index " + index + ": " + message);
+        }
+        process(chunk, result);
+
+        log.info("Importing users: {} created, {} failed", result.getCreated(), result.getFailed());
+        logSummaryService.addLog("INFO", "Importing users: " + result.getCreated() + " created, " + result.getFailed() + " failed");
+        return result;
+    }
+
+    private Candidate parse(int index, JsonNode node, Set<String> seenUsernames, Set<String> seenEmails) {
+        UserCreateDTO dto;
+        try {
+            dto = objectMapper.treeToValue(node, UserCreateDTO.class);
+        } catch (JsonProcessingException e) {
+            // Erros dos VOs chegam como causa da exceção do Jackson
+            String message = e.getCause() != null ? e.getCause().getMessage() : e.getOriginalMessage();
+            return Candidate.rejected(index, node.path("username").path("value").asText(null), Status.INVALID, message);
+        }
+
+        String username = dto.getUsername() != null ? dto.getUsername().getValue() : null;
+        Set<ConstraintViolation<UserCreateDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserCreateDTO> violation = violations.iterator().next();
+            return Candidate.rejected(index, username, Status.INVALID, violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (username == null || dto.getPassword() == null) {
+            return Candidate.rejected(index, username, Status.INVALID, "Username and password are mandatory");
+        }
+        if (!seenUsernames.add(username)) {
+            return Candidate.rejected(index, username, Status.DUPLICATE, "Username repeated in this batch");
+        }
+        if (dto.getEmail() != null && !seenEmails.add(dto.getEmail().getValue())) {
+            return Candidate.rejected(index, username, Status.DUPLICATE, "Email repeated in this batch");
+        }
+        return new Candidate(index, dto);
+    }
+
+    private void process(List<Candidate> chunk, UserBatchResult result) {
+        List<Candidate> pending = chunk.stream().filter(c -> c.status == null).toList();
+        if (!pending.isEmpty()) {
+            Set<String> existingUsernames = existing(userUniquenessIndex.likelyUsernames(
+                    pending.stream().map(c -> c.username).toList()), userRepository::findExistingUsernames);
+            Set<String> existingEmails = existing(userUniquenessIndex.likelyEmails(
+                    pending.stream().map(c -> c.email).filter(Objects::nonNull).toList()), userRepository::findExistingEmails);
+            List<Candidate> toInsert = new ArrayList<>(pending.size());
+            for (Candidate candidate : pending) {
+                if (existingUsernames.contains(candidate.username)) {
+                    candidate.reject(Status.DUPLICATE, "Username already exists");
+                } else if (candidate.email != null && existingEmails.contains(candidate.email)) {
+                    candidate.reject(Status.DUPLICATE, "Email already in use");
+                } else {
+                    toInsert.add(candidate);
+                }
+            }
+            hash(toInsert);
+            insert(toInsert);
+        }
+        for (Candidate candidate : chunk) {
+            result.add(candidate.toRow());
+        }
+    }
+
+    // Sem candidatos prováveis, nem consulta o banco
+    private static Set<String> existing(List<String> likely, Function<List<String>, List<String>> query) {
+        return likely.isEmpty() ? Set.of() : new HashSet<>(query.apply(likely));
+    }
+
+    private void hash(List<Candidate> candidates) {
+        List<String> hashes = passwordHashingService.encodeAll(
+                candidates.stream().map(c -> c.dto.getPassword().getValue()).toList());
+        for (int i = 0; i < candidates.size(); i++) {
+            candidates.get(i).passwordHash = hashes.get(i);
+        }
+    }
+
+    private void insert(List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                List<User> users = new ArrayList<>(candidates.size());
+                for (Candidate candidate : candidates) {
+                    User user = candidate.toUser();
+                    entityManager.persist(user);
+                    users.add(user);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                for (int i = 0; i < candidates.size(); i++) {
+                    candidates.get(i).created(users.get(i).getId_user());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Batch insert of {} users failed, retrying row by row: {}", candidates.size(), e.getMessage());
+            for (Candidate candidate : candidates) {
+                insertOne(candidate);
+            }
+        }
+        userChangeCounter.increment();
+        for (Candidate candidate : candidates) {
+            if (candidate.status == Status.CREATED) {
+                userUniquenessIndex.add(candidate.username, candidate.email);
+            }
+        }
+    }
+
+    private void insertOne(Candidate candidate) {
+        try {
+            User user = candidate.toUser();
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.persist(user);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            candidate.created(user.getId_user());
+        } catch (ConstraintViolationException e) {
+            candidate.reject(Status.INVALID, e.getConstraintViolations().iterator().next().getMessage());
+        } catch (RuntimeException e) {
+            if (isIntegrityViolation(e)) {
+                candidate.reject(Status.DUPLICATE, candidate.email != null && !userRepository.existsByUsername(candidate.username)
+                        ? "Email already in use" : "Username already exists");
+            } else {
+                candidate.reject(Status.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isIntegrityViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DataIntegrityViolationException
+                    || t instanceof org.hibernate.exception.ConstraintViolationException
+                    || t instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Elemento do array em processamento; {@code status} nulo enquanto ainda pode ser gravado. */
+    private static final class Candidate {
+        final int index;
+        final UserCreateDTO dto;
+        final String username;
+        final String email;
+        String passwordHash;
+        Status status;
+        Long id;
+        String message;
+
+        Candidate(int index, UserCreateDTO dto) {
+            this.index = index;
+            this.dto = dto;
+            this.username = dto.getUsername().getValue();
+            this.email = dto.getEmail() != null ? dto.getEmail().getValue() : null;
+        }
+
+        private Candidate(int index, String username, Status status, String message) {
+            this.index = index;
+            this.dto = null;
+            this.username = username;
+            this.email = null;
+            this.status = status;
+            this.message = message;
+        }
+
+        static Candidate rejected(int index, String username, Status status, String message) {
+            return new Candidate(index, username, status, message);
+        }
+
+        void reject(Status status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+
+        void created(Long id) {
+            this.status = Status.CREATED;
+            this.id = id;
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setClientName(dto.getClientName());
+            user.setEmail(email);
+            user.setBetMaxValue(dto.getBetMaxValue());
+            user.setUsername(username);
+            user.setPassword(passwordHash);
+            user.setUserPixKey(dto.getUserPixKey());
+            return user;
+        }
+
+        Row toRow() {
+            return new Row(index, status, id, username, message);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package br.com.fiap.api.service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cache read-through de usuários por id e por username, limitado em tamanho
+ * (LRU) e com TTL. Guarda cópias desanexadas do JPA e devolve uma cópia nova a
+ * cada leitura, então quem altera o objeto devolvido não altera o cache.
+ * As escritas em {@link UserService} invalidam a entrada; com
+ * {@code users.cache.invalidation.port} configurado, a invalidação também é
+ * enviada às outras instâncias. Sem esse canal, a checagem de senha
+ * ({@link #findCredentialsByUsername}) vai sempre ao banco: uma senha trocada em outra
+ * instância não pode continuar valendo até o TTL. Com réplicas de leitura, um usuário invalidado
+ * não volta ao cache até passar {@code db.replicas.sticky-ms}: antes disso a carga
+ * pode ter vindo de uma réplica ainda sem a escrita.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final long replicaLagNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Ordem de acesso: o primeiro é o menos usado recentemente
+    private final LinkedHashMap<Long, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> idsByUsername = new HashMap<>();
+    // Muda a cada invalidação; uma carga que começou antes não entra no cache
+    private final AtomicLong generation = new AtomicLong();
+    // Id -> instante da invalidação, na ordem em que ocorreram (só com réplicas)
+    private final LinkedHashMap<Long, Long> recentInvalidations = new LinkedHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+
+    private UserCacheInvalidationChannel channel;
+
+    @Autowired
+    public UserCache(
+            UserRepository userRepository,
+            @Value("${users.cache.max-entries:10000}") int maxEntries,
+            @Value("${users.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${users.cache.invalidation.port:0}") int invalidationPort,
+            @Value("${users.cache.invalidation.bind-address:127.0.0.1}") String invalidationBindAddress,
+            @Value("${users.cache.invalidation.peers:}") String invalidationPeers,
+            @Value("${users.cache.invalidation.secret:}") String invalidationSecret,
+            @Value("${db.replicas.urls:}") String replicaUrls,
+            @Value("${db.replicas.sticky-ms:2000}") long replicaLagMillis) throws IOException {
+        this(userRepository, maxEntries, ttlSeconds, replicaUrls.isBlank() ? 0 : replicaLagMillis, System::nanoTime);
+        List<InetSocketAddress> peers = UserCacheInvalidationChannel.parsePeers(invalidationPeers);
+        if (!peers.isEmpty() && invalidationPort <= 0) {
+            // Outras instâncias sem canal: o cache delas guardaria dados (e senhas) já trocados aqui
+            throw new IllegalStateException("users.cache.invalidation.peers requires users.cache.invalidation.port");
+        }
+        if (invalidationPort > 0) {
+            this.channel = new UserCacheInvalidationChannel(invalidationBindAddress, invalidationPort, peers,
+                    invalidationSecret, this::evict);
+        }
+    }
+
+    UserCache(UserRepository userRepository, int maxEntries, long ttlSeconds, LongSupplier nanoClock) {
+        this(userRepository, maxEntries, ttlSeconds, 0, nanoClock);
+    }
+
+    UserCache(UserRepository userRepository, int maxEntries, long ttlSeconds, long replicaLagMillis,
+            LongSupplier nanoClock) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.replicaLagNanos = TimeUnit.MILLISECONDS.toNanos(replicaLagMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    public Optional<User> findById(Long id) {
+        User cached = get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(() -> userRepository.findById(id));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        User cached = null;
+        lock.lock();
+        try {
+            Long id = idsByUsername.get(username);
+            if (id != null) {
+                cached = getLocked(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        return load(() -> userRepository.findByUsername(username));
+    }
+
+    /**
+     * Usuário com o hash da senha, para autenticação. Só vem do cache com o canal de
+     * invalidação ativo; sem ele, lê do banco sem passar pelo cache.
+     */
+    public Optional<User> findCredentialsByUsername(String username) {
+        if (channel != null) {
+            return findByUsername(username);
+        }
+        bypasses.increment();
+        return userRepository.findByUsername(username);
+    }
+
+    /** Versão do usuário em cache, sem copiar nem carregar; {@code null} se não estiver no cache. */
+    public Long peekVersion(Long id) {
+        lock.lock();
+        try {
+            Entry entry = byId.get(id);
+            if (entry == null || nanoClock.getAsLong() - entry.expiresAt >= 0) {
+                return null;
+            }
+            return entry.user.getVersion();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Remove o usuário do cache local e avisa as outras instâncias. */
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        invalidations.increment();
+        evict(id);
+        if (channel != null) {
+            channel.publish(id);
+        }
+    }
+
+    private User get(Long id) {
+        User cached;
+        lock.lock();
+        try {
+            cached = getLocked(id);
+        } finally {
+            lock.unlock();
+        }
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return cached;
+    }
+
+    private User getLocked(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt >= 0) {
+            expirations.increment();
+            removeLocked(id);
+            return null;
+        }
+        return copyOf(entry.user);
+    }
+
+    private Optional<User> load(Supplier<Optional<User>> loader) {
+        long before = generation.get();
+        Optional<User> loaded = loader.get();
+        if (loaded.isEmpty() || maxEntries <= 0) {
+            return loaded;
+        }
+        User user = loaded.get();
+        lock.lock();
+        try {
+            if (generation.get() == before && !recentlyInvalidatedLocked(user.getId_user())) {
+                putLocked(copyOf(user));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    private void putLocked(User user) {
+        Long id = user.getId_user();
+        removeLocked(id);
+        byId.put(id, new Entry(user, nanoClock.getAsLong() + ttlNanos));
+        idsByUsername.put(user.getUsername(), id);
+
+        Iterator<Map.Entry<Long, Entry>> eldest = byId.entrySet().iterator();
+        while (byId.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<Long, Entry> victim = eldest.next();
+            eldest.remove();
+            idsByUsername.remove(victim.getValue().user.getUsername(), victim.getKey());
+            evictions.increment();
+        }
+    }
+
+    private void evict(long id) {
+        generation.incrementAndGet();
+        lock.lock();
+        try {
+            removeLocked(id);
+            if (replicaLagNanos > 0) {
+                recentInvalidations.remove(id);
+                recentInvalidations.put(id, nanoClock.getAsLong());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean recentlyInvalidatedLocked(Long id) {
+        if (replicaLagNanos <= 0) {
+            return false;
+        }
+        long now = nanoClock.getAsLong();
+        Iterator<Long> oldest = recentInvalidations.values().iterator();
+        while (oldest.hasNext() && now - oldest.next() >= replicaLagNanos) {
+            oldest.remove();
+        }
+        return recentInvalidations.containsKey(id);
+    }
+
+    private void removeLocked(Long id) {
+        Entry removed = byId.remove(id);
+        if (removed != null) {
+            idsByUsername.remove(removed.user.getUsername(), id);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        lock.lock();
+        try {
+            size = byId.size();
+        } finally {
+            lock.unlock();
+        }
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.sum());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("credentialBypasses", bypasses.sum());
+        return stats;
+    }
+
+    static User copyOf(User user) {
+        return new User(user.getId_user(), user.getClientName(), user.getEmail(), user.getRegisterDate(),
+                user.getBetMaxValue(), user.getUsername(), user.getPassword(), user.getUserPixKey(), user.getVersion());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
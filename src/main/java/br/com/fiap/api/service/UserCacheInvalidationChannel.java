@@ -0,0 +1,166 @@
+package br.com.fiap.api.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Canal UDP de invalidação do {@link UserCache} entre instâncias. Cada invalidação
+ * local envia o id para os pares configurados; os ids recebidos são invalidados
+ * localmente, sem reenvio. Perder um datagrama só deixa a entrada viva até o TTL.
+ * Cada mensagem leva o instante de envio e um HMAC-SHA256 com o segredo
+ * compartilhado: datagramas sem assinatura válida ou com mais de
+ * {@link #MAX_AGE_MILLIS} ms são descartados.
+ */
+public class UserCacheInvalidationChannel implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(UserCacheInvalidationChannel.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 32;
+    // id + instante de envio (epoch ms) + HMAC dos dois
+    private static final int MESSAGE_BYTES = 2 * Long.BYTES + MAC_BYTES;
+    static final long MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final DatagramChannel channel;
+    private final List<InetSocketAddress> peers;
+    private final SecretKeySpec key;
+    private final LongSupplier clock;
+    private final Thread receiver;
+    private final LongAdder rejected = new LongAdder();
+
+    public UserCacheInvalidationChannel(String bindAddress, int port, List<InetSocketAddress> peers, String secret,
+            LongConsumer onInvalidate) throws IOException {
+        this(bindAddress, port, peers, secret, System::currentTimeMillis, onInvalidate);
+    }
+
+    UserCacheInvalidationChannel(String bindAddress, int port, List<InetSocketAddress> peers, String secret,
+            LongSupplier clock, LongConsumer onInvalidate) throws IOException {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("The cache invalidation channel requires a shared secret");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.peers = List.copyOf(peers);
+        this.clock = clock;
+        this.channel = DatagramChannel.open().bind(new InetSocketAddress(bindAddress, port));
+        this.receiver = Thread.ofVirtual().name("user-cache-invalidation").start(() -> receive(onInvalidate));
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    /** Datagramas descartados por tamanho, assinatura ou idade. */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public void publish(long id) {
+        ByteBuffer message = ByteBuffer.allocate(MESSAGE_BYTES).putLong(id).putLong(clock.getAsLong());
+        message.put(sign(message.array(), 2 * Long.BYTES));
+        for (InetSocketAddress peer : peers) {
+            try {
+                channel.send(message.flip(), peer);
+            } catch (IOException e) {
+                log.warn("Error sending user cache invalidation to {}: {}", peer, e.getMessage());
+            }
+        }
+    }
+
+    private void receive(LongConsumer onInvalidate) {
+        ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_BYTES + 1);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress sender = channel.receive(buffer);
+                Long id = verify(buffer.flip());
+                if (id != null) {
+                    onInvalidate.accept(id);
+                } else {
+                    rejected.increment();
+                    log.debug("Discarded user cache invalidation from {}", sender);
+                }
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Error receiving user cache invalidation: {}", e.getMessage());
+            }
+        }
+    }
+
+    // O id, ou nulo se a mensagem não for válida
+    private Long verify(ByteBuffer message) {
+        if (message.remaining() != MESSAGE_BYTES) {
+            return null;
+        }
+        byte[] bytes = new byte[MESSAGE_BYTES];
+        message.get(bytes);
+        byte[] expected = sign(bytes, 2 * Long.BYTES);
+        byte[] actual = new byte[MAC_BYTES];
+        System.arraycopy(bytes, 2 * Long.BYTES, actual, 0, MAC_BYTES);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        ByteBuffer fields = ByteBuffer.wrap(bytes);
+        long id = fields.getLong();
+        long sentAt = fields.getLong();
+        if (Math.abs(clock.getAsLong() - sentAt) > MAX_AGE_MILLIS) {
+            return null;
+        }
+        return id;
+    }
+
+    private byte[] sign(byte[] bytes, int length) {
+        try {
+            // Mac não é thread-safe; publish roda nas threads das requisições
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(bytes, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    /** Lê "host:porta,host:porta" da configuração. */
+    public static List<InetSocketAddress> parsePeers(String peers) {
+        List<InetSocketAddress> result = new ArrayList<>();
+        if (peers == null) {
+            return result;
+        }
+        for (String peer : peers.split(",")) {
+            String trimmed = peer.trim();
+            if (trimmed.isEmpty()) continue;
+            int colon = trimmed.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid cache peer '" + trimmed + "', expected host:port");
+            }
+            result.add(new InetSocketAddress(trimmed.substring(0, colon), Integer.parseInt(trimmed.substring(colon + 1))));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        receiver.interrupt();
+    }
+}
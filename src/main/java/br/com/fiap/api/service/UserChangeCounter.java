@@ -0,0 +1,35 @@
+package br.com.fiap.api.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Contador de alterações da tabela {@code users} (V10), base do ETag das listagens.
+ * Fica no banco para valer entre instâncias. As escritas incrementam depois de
+ * gravar e as leituras consultam antes de buscar os dados, então um ETag nunca é
+ * mais novo que a página que acompanha (no pior caso o cliente busca de novo).
+ * Com réplicas, as duas leituras da requisição vão à mesma réplica
+ * ({@link br.com.fiap.api.config.ReplicaRoutingContext}), o que mantém essa ordem.
+ */
+@Component
+public class UserChangeCounter {
+
+    private static final String SELECT_SQL = "SELECT version FROM change_counters WHERE table_name = 'users'";
+    private static final String INCREMENT_SQL =
+            "UPDATE change_counters SET version = version + 1 WHERE table_name = 'users'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public long current() {
+        Long version = jdbcTemplate.queryForObject(SELECT_SQL, Long.class);
+        return version != null ? version : 0;
+    }
+
+    public void increment() {
+        jdbcTemplate.update(INCREMENT_SQL);
+    }
+}
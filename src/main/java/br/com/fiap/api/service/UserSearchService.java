@@ -0,0 +1,111 @@
+package br.com.fiap.api.service;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.fiap.api.dto.UserSearchPage;
+import br.com.fiap.api.dto.UserSummary;
+
+/**
+ * Busca de usuários por e-mail exato, prefixo de username ou prefixo do nome (sem
+ * diferenciar maiúsculas). Cada critério percorre o seu índice (V8) na ordem do
+ * próprio índice, e a paginação continua a partir da última chave lida, sem OFFSET.
+ */
+@Service
+public class UserSearchService {
+
+    private static final String SELECT =
+            "SELECT id_user, client_name, email, username, register_date, client_name_lower FROM users ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public UserSearchPage search(String email, String username, String name, String after, Integer limit) {
+        int criteria = (isBlank(email) ? 0 : 1) + (isBlank(username) ? 0 : 1) + (isBlank(name) ? 0 : 1);
+        if (criteria != 1) {
+            throw new IllegalArgumentException("Inform exactly one of email, username or name");
+        }
+        int size = limit == null || limit <= 0 ? UserService.DEFAULT_PAGE_SIZE : Math.min(limit, UserService.MAX_PAGE_SIZE);
+        Cursor cursor = Cursor.parse(after);
+
+        List<Row> rows;
+        if (!isBlank(email)) {
+            rows = query(SELECT + "WHERE email = ? AND id_user > ? ORDER BY id_user LIMIT ?",
+                    email.trim(), cursor.id, size + 1);
+        } else if (!isBlank(username)) {
+            rows = query(SELECT + "WHERE username LIKE ? ESCAPE '\\' AND username > ? ORDER BY username LIMIT ?",
+                    likePrefix(username.trim()), cursor.key, size + 1);
+        } else {
+            rows = query(SELECT + "WHERE client_name_lower LIKE ? ESCAPE '\\'"
+                    + " AND (client_name_lower > ? OR (client_name_lower = ? AND id_user > ?))"
+                    + " ORDER BY client_name_lower, id_user LIMIT ?",
+                    likePrefix(name.trim().toLowerCase(Locale.ROOT)), cursor.key, cursor.key, cursor.id, size + 1);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Row last = rows.get(size - 1);
+            String key = !isBlank(username) ? last.summary.getUsername() : last.nameKey;
+            nextCursor = last.summary.getId() + ":" + (key != null ? key : "");
+        }
+        return new UserSearchPage(rows.stream().map(r -> r.summary).toList(), nextCursor);
+    }
+
+    private List<Row> query(String sql, Object... args) {
+        return jdbcTemplate.query(sql, (rs, n) -> {
+            Date registerDate = rs.getDate("register_date");
+            UserSummary summary = new UserSummary(
+                    rs.getLong("id_user"),
+                    rs.getString("client_name"),
+                    rs.getString("email"),
+                    rs.getString("username"),
+                    registerDate != null ? registerDate.toLocalDate() : null);
+            return new Row(summary, rs.getString("client_name_lower"));
+        }, args);
+    }
+
+    // Escapa os curingas do LIKE para o texto ser tratado como prefixo literal
+    static String likePrefix(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (char c : prefix.toCharArray()) {
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record Row(UserSummary summary, String nameKey) {
+    }
+
+    /** Cursor "id:chave"; o id vem antes porque nunca contém ':'. */
+    private record Cursor(long id, String key) {
+        static Cursor parse(String after) {
+            if (after == null || after.isEmpty()) {
+                return new Cursor(0, "");
+            }
+            int colon = after.indexOf(':');
+            try {
+                return colon < 0
+                        ? new Cursor(Long.parseLong(after), "")
+                        : new Cursor(Long.parseLong(after.substring(0, colon)), after.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+    }
+}
@@ -1,101 +1,338 @@
 package br.com.fiap.api.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import br.com.fiap.api.dto.ResetPasswordRequest;
 import br.com.fiap.api.dto.UserCreateDTO;
+import br.com.fiap.api.dto.UserPage;
 import br.com.fiap.api.dto.UserUpdateDTO;
+import br.com.fiap.api.exception.DuplicateUserException;
 import br.com.fiap.api.log.LogSummaryService;
 import br.com.fiap.api.model.User;
 import br.com.fiap.api.repository.UserRepository;
 import br.com.fiap.api.vo.EmailVO;
 import br.com.fiap.api.vo.PasswordVO;
 import br.com.fiap.api.vo.UsernameVO;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 
+// Timer "users.service" por método (tags class/method)
+@Timed("users.service")
 @Service
 public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String STREAM_SQL =
+            "SELECT id_user, client_name, email, register_date, bet_max_value, username, password, user_pix_key, version"
+            + " FROM users WHERE id_user > ? ORDER BY id_user";
+    private static final String VERSION_SQL = "SELECT version FROM users WHERE id_user = ?";
+    private static final String KEYS_SQL = "SELECT username, email FROM users WHERE id_user = ?";
+    private static final String EMAIL_SQL = "SELECT email FROM users WHERE id_user = ?";
+    private static final String DELETE_SQL = "DELETE FROM users WHERE id_user = ?";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private LogSummaryService logSummaryService;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserChangeCounter userChangeCounter;
+
+    @Autowired
+    private UserUniquenessIndex userUniquenessIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${users.stream.fetch-size:500}")
+    private int streamFetchSize;
+
     // -------------------------- CRUD ---------------------------------
-    public List<User> listAll() {
-        return userRepository.findAll();
+    /**
+     * Página de usuários ordenada por id, a partir do id seguinte a {@code after}.
+     * Busca um registro a mais para saber se existe próxima página.
+     */
+    @Transactional(readOnly = true)
+    public UserPage listPage(Long after, Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        List<User> rows = userRepository.findPageAfter(after == null ? 0 : after, Limit.of(size + 1));
+        if (rows.size() <= size) {
+            return new UserPage(rows, null);
+        }
+        List<User> items = rows.subList(0, size);
+        return new UserPage(items, items.get(size - 1).getId_user());
+    }
+
+    /**
+     * Escreve os usuários com id maior que {@code after} em NDJSON (um objeto por
+     * linha). Lê com cursor forward-only e fetch size fixo e monta cada {@link User}
+     * fora do contexto de persistência, então a memória não cresce com a tabela.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Long after, OutputStream out) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            long[] written = {0};
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        STREAM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(streamFetchSize);
+                statement.setLong(1, after == null ? 0 : after);
+                return statement;
+            }, rs -> {
+                try {
+                    generator.writeObject(mapRow(rs));
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (written[0] > 0) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static User mapRow(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId_user(rs.getLong("id_user"));
+        user.setClientName(rs.getString("client_name"));
+        user.setEmail(rs.getString("email"));
+        Date registerDate = rs.getDate("register_date");
+        user.setRegisterDate(registerDate != null ? registerDate.toLocalDate() : null);
+        user.setBetMaxValue(rs.getObject("bet_max_value", Double.class));
+        user.setUsername(rs.getString("username"));
+        user.setPassword(rs.getString("password"));
+        user.setUserPixKey(rs.getString("user_pix_key"));
+        user.setVersion(rs.getLong("version"));
+        return user;
     }
 
     public Optional<User> searchForId(Long id) {
-        return userRepository.findById(id);
+        return userCache.findById(id);
     }
 
+    /**
+     * Versão atual do usuário sem montar a entidade: a do cache, se estiver lá (a mesma
+     * que {@link #searchForId} devolveria), senão só a coluna lida pela PK.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        Long cached = userCache.peekVersion(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return jdbcTemplate.queryForList(VERSION_SQL, Long.class, id).stream().findFirst();
+    }
+
+    /**
+     * Cadastra o usuário. Username e e-mail repetidos são barrados antes do BCrypt
+     * ({@link UserUniquenessIndex}).
+     *
+     * @throws DuplicateUserException se o username ou o e-mail já estiver em uso
+     */
     public User createUser(@Valid UserCreateDTO dto) {
+        String username = dto.getUsername() != null ? dto.getUsername().getValue() : null;
+        String email = dto.getEmail() != null ? dto.getEmail().getValue() : null;
+        userUniquenessIndex.checkAvailable(username, email);
+
         User user = new User();
         user.setClientName(dto.getClientName());
-        user.setEmail(dto.getEmail() != null ? dto.getEmail().getValue() : null);
+        user.setEmail(email);
         user.setBetMaxValue(dto.getBetMaxValue());
-        user.setUsername(dto.getUsername() != null ? dto.getUsername().getValue() : null);
-        user.setPassword(dto.getPassword() != null ? passwordEncoder.encode(dto.getPassword().getValue()) : null);
+        user.setUsername(username);
+        user.setPassword(dto.getPassword() != null ? passwordHashingService.encode(dto.getPassword().getValue()) : null);
         user.setUserPixKey(dto.getUserPixKey());
 
         log.info("Creating user: {}", user.getUsername());
         logSummaryService.addLog("INFO", "Creating user: " + user.getUsername());
 
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Cadastro concorrente com o mesmo username ou e-mail: o UNIQUE da coluna decide
+            if (username != null && userRepository.existsByUsername(username)) {
+                throw new DuplicateUserException("Username already exists");
+            }
+            if (email != null && userRepository.existsByEmail(email)) {
+                throw new DuplicateUserException("Email already in use");
+            }
+            throw e;
+        }
+        userChangeCounter.increment();
+        userUniquenessIndex.add(saved.getUsername(), saved.getEmail());
+        return saved;
     }
 
-    public User updateUser(Long id, @Valid UserUpdateDTO dto) {
-        return userRepository.findById(id).map(user -> {
-            if (dto.getClientName() != null) user.setClientName(dto.getClientName());
-            if (dto.getEmail() != null) user.setEmail(dto.getEmail().getValue());
-            if (dto.getBetMaxValue() != null) user.setBetMaxValue(dto.getBetMaxValue());
-            if (dto.getUserPixKey() != null) user.setUserPixKey(dto.getUserPixKey());
+    /**
+     * Atualiza só os campos não nulos do DTO com um único {@code UPDATE}, sem ler a
+     * linha antes. Com {@code dto.version} informado, só atualiza se a versão bater.
+     * Um e-mail novo passa pela mesma checagem do cadastro; o atual do usuário não conta.
+     *
+     * @return {@code false} se não existe usuário com esse id
+     * @throws OptimisticLockingFailureException se a versão informada estiver desatualizada
+     * @throws DuplicateUserException se o e-mail já estiver em uso por outro usuário
+     */
+    public boolean updateUser(Long id, @Valid UserUpdateDTO dto) {
+        List<String> assignments = new ArrayList<>(5);
+        List<Object> args = new ArrayList<>(7);
+        if (dto.getClientName() != null) {
+            if (dto.getClientName().isBlank()) {
+                throw new IllegalArgumentException("Client name is mandatory!");
+            }
+            assignments.add("client_name = ?");
+            args.add(dto.getClientName());
+        }
+        if (dto.getEmail() != null) {
+            String email = dto.getEmail().getValue();
+            List<String> current = jdbcTemplate.queryForList(EMAIL_SQL, String.class, id);
+            if (current.isEmpty() || !email.equals(current.get(0))) {
+                userUniquenessIndex.checkAvailable(null, email);
+            }
+            assignments.add("email = ?");
+            args.add(email);
+        }
+        if (dto.getBetMaxValue() != null) {
+            if (dto.getBetMaxValue() < 0) {
+                throw new IllegalArgumentException("Bet maximum value cannot be less than 0.");
+            }
+            assignments.add("bet_max_value = ?");
+            args.add(dto.getBetMaxValue());
+        }
+        if (dto.getUserPixKey() != null) {
+            assignments.add("user_pix_key = ?");
+            args.add(dto.getUserPixKey());
+        }
+        if (assignments.isEmpty()) {
+            return userRepository.existsById(id);
+        }
+        assignments.add("version = version + 1");
+
+        StringBuilder sql = new StringBuilder("UPDATE users SET ")
+                .append(String.join(", ", assignments))
+                .append(" WHERE id_user = ?");
+        args.add(id);
+        if (dto.getVersion() != null) {
+            sql.append(" AND version = ?");
+            args.add(dto.getVersion());
+        }
 
-            log.info("Updating user: {}", user.getUsername());
-            logSummaryService.addLog("INFO", "Updating user: " + user.getUsername());
+        int rows;
+        try {
+            rows = jdbcTemplate.update(sql.toString(), args.toArray());
+        } catch (DataIntegrityViolationException e) {
+            // Outro usuário gravou o mesmo e-mail depois da checagem
+            if (dto.getEmail() != null && userRepository.existsByEmail(dto.getEmail().getValue())) {
+                throw new DuplicateUserException("Email already in use");
+            }
+            throw e;
+        }
+        if (rows == 0) {
+            // Só no caso de falha: diferencia id inexistente de versão desatualizada
+            if (dto.getVersion() != null && userRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("User " + id + " was modified by another request");
+            }
+            return false;
+        }
+        userCache.invalidate(id);
+        userChangeCounter.increment();
+        if (dto.getEmail() != null) {
+            // O e-mail antigo fica no índice: no máximo um falso positivo, confirmado no banco
+            userUniquenessIndex.add(null, dto.getEmail().getValue());
+        }
 
-            return userRepository.save(user);
-        }).orElseThrow(() -> new RuntimeException("User not found"));
+        log.info("Updating user: {}", id);
+        logSummaryService.addLog("INFO", "Updating user: " + id);
+        return true;
     }
 
-    public void delete(Long id) {
-        userRepository.deleteById(id);
+    /** @return linhas apagadas; 0 se não existe usuário com esse id */
+    public int delete(Long id) {
+        // Username e e-mail lidos antes para tirar do índice; só quem apagou a linha tira,
+        // e só dos filtros em uso antes do DELETE
+        UserUniquenessIndex.Filters indexed = userUniquenessIndex.current();
+        List<String[]> keys = jdbcTemplate.query(KEYS_SQL,
+                (rs, rowNum) -> new String[] { rs.getString(1), rs.getString(2) }, id);
+        int rows = jdbcTemplate.update(DELETE_SQL, id);
+        if (rows == 0) {
+            return 0;
+        }
+        userCache.invalidate(id);
+        userChangeCounter.increment();
+        if (!keys.isEmpty()) {
+            userUniquenessIndex.remove(indexed, keys.get(0)[0], keys.get(0)[1]);
+        }
+        return rows;
     }
 
     // ------------------------ SECURITY -----------------------------------------------
     public boolean autenticateUser(String typedUsername, String typedPassword) {
-        User user = userRepository.findByUsername(typedUsername)
+        User user = userCache.findCredentialsByUsername(typedUsername)
                 .orElseThrow(() -> new RuntimeException("User not found."));
-        return passwordEncoder.matches(typedPassword, user.getPassword());
+        return passwordHashingService.matches(typedPassword, user.getPassword());
     }
 
     public boolean resetPassword(String username, ResetPasswordRequest request) {
-        Optional<User> usuarioOpt = userRepository.findByUsername(username);
+        Optional<User> usuarioOpt = userCache.findCredentialsByUsername(username);
 
         if (usuarioOpt.isEmpty()) return false;
 
         User user = usuarioOpt.get();
 
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getCurrentPassword(), user.getPassword())) {
             return false;
         }
 
-        String newPasswordHash = passwordEncoder.encode(request.getNewPassword());
-        user.setPassword(newPasswordHash);
-        userRepository.save(user);
+        String newPasswordHash = passwordHashingService.encode(request.getNewPassword());
+        // A cópia do cache pode estar defasada; grava sobre a linha atual
+        User current = userRepository.findById(user.getId_user()).orElse(null);
+        if (current == null) return false;
+        current.setPassword(newPasswordHash);
+        userRepository.save(current);
+        userCache.invalidate(current.getId_user());
+        userChangeCounter.increment();
 
         return true;
     }
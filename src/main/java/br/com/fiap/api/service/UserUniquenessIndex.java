@@ -0,0 +1,248 @@
+package br.com.fiap.api.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.fiap.api.exception.DuplicateUserException;
+import br.com.fiap.api.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Índice em memória dos usernames e e-mails já cadastrados ({@link CountingBloomFilter}),
+ * para barrar duplicados no cadastro sem ir ao banco quando o valor certamente é novo.
+ * Um "talvez exista" é confirmado com uma consulta indexada; só um duplicado confirmado
+ * vira 409. É carregado lendo a tabela em streaming depois da subida (e reconstruído de
+ * tempos em tempos, o que pega cadastros de outras instâncias); até lá, toda checagem
+ * vai ao banco. Um cadastro feito em outra instância depois da última carga pode passar
+ * como "certamente novo": os UNIQUE de {@code username} e {@code email} (V12) continuam
+ * sendo a garantia final, e a violação vira o mesmo 409.
+ */
+@Component
+public class UserUniquenessIndex implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(UserUniquenessIndex.class);
+
+    private static final String SCAN_SQL = "SELECT username, email FROM users";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final boolean enabled;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final int fetchSize;
+
+    // Nulo até a primeira carga terminar
+    private volatile Filters filters;
+    // Em construção durante uma carga: recebe também as inclusões feitas no meio dela
+    private volatile Filters building;
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public UserUniquenessIndex(
+            @Value("${users.unique-index.enabled:true}") boolean enabled,
+            @Value("${users.unique-index.expected-entries:1000000}") long expectedEntries,
+            @Value("${users.unique-index.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${users.unique-index.fetch-size:1000}") int fetchSize) {
+        this.enabled = enabled;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.fetchSize = fetchSize;
+        // Valida a configuração já na subida
+        new CountingBloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread.ofVirtual().name("user-unique-index").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Lê todos os usernames e e-mails do primário e troca os filtros de uma vez.
+     * Inclusões concorrentes vão para os dois conjuntos; remoções só para o conjunto
+     * em uso antes do DELETE (no novo ficam no máximo como falso positivo).
+     */
+    @Scheduled(initialDelayString = "${users.unique-index.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${users.unique-index.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!enabled || !loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            Filters next = new Filters(expectedEntries, falsePositiveRate);
+            building = next;
+            long[] rows = {0};
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        SCAN_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rs -> {
+                next.add(rs.getString(1), rs.getString(2));
+                rows[0]++;
+            }));
+            // Nessa ordem: quem ler building nulo já enxerga os filtros novos
+            filters = next;
+            building = null;
+            log.info("Loaded {} users into the uniqueness index in {} ms", rows[0], (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            building = null;
+            log.warn("Could not load the uniqueness index, checks keep going to the database: {}", e.getMessage());
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    /**
+     * Checa username e e-mail antes do cadastro (e do BCrypt).
+     *
+     * @throws DuplicateUserException se algum dos dois já estiver em uso
+     */
+    public void checkAvailable(String username, String email) {
+        if (username != null && exists(username, f -> f.usernames, userRepository::existsByUsername)) {
+            throw new DuplicateUserException("Username already exists");
+        }
+        if (email != null && exists(email, f -> f.emails, userRepository::existsByEmail)) {
+            throw new DuplicateUserException("Email already in use");
+        }
+    }
+
+    private boolean exists(String value, Function<Filters, CountingBloomFilter> field, Function<String, Boolean> query) {
+        Filters current = enabled ? filters : null;
+        if (current != null && !field.apply(current).mightContain(value)) {
+            skipped.increment();
+            return false;
+        }
+        boolean exists = query.apply(value);
+        if (exists) {
+            duplicates.increment();
+        } else if (current != null) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    /** Os usernames que talvez existam (todos, enquanto o índice não carregou). */
+    public List<String> likelyUsernames(Collection<String> usernames) {
+        return likely(usernames, f -> f.usernames);
+    }
+
+    /** Os e-mails que talvez existam (todos, enquanto o índice não carregou). */
+    public List<String> likelyEmails(Collection<String> emails) {
+        return likely(emails, f -> f.emails);
+    }
+
+    private List<String> likely(Collection<String> values, Function<Filters, CountingBloomFilter> field) {
+        Filters current = enabled ? filters : null;
+        if (current == null) {
+            return List.copyOf(values);
+        }
+        CountingBloomFilter filter = field.apply(current);
+        List<String> likely = values.stream().filter(filter::mightContain).toList();
+        skipped.add(values.size() - likely.size());
+        return likely;
+    }
+
+    /** Registra um usuário gravado (ou o e-mail novo de um usuário, com username nulo). */
+    public void add(String username, String email) {
+        // Nessa ordem, o inverso da troca em rebuild(): nenhuma inclusão fica fora dos filtros novos
+        Filters next = building;
+        Filters current = filters;
+        if (next != null) {
+            next.add(username, email);
+        }
+        if (current != null && current != next) {
+            current.add(username, email);
+        }
+    }
+
+    /**
+     * Os filtros em uso, para passar a {@link #remove}; pegue antes do DELETE. Nulo
+     * enquanto o índice não carregou.
+     */
+    Filters current() {
+        return enabled ? filters : null;
+    }
+
+    /**
+     * Tira um usuário apagado dos filtros que estavam em uso antes do DELETE; chame uma
+     * única vez por linha removida. Uma carga que leu a tabela depois do DELETE não tem
+     * o usuário, e tirá-lo dos filtros novos apagaria contadores de outro valor.
+     */
+    void remove(Filters before, String username, String email) {
+        if (before != null) {
+            before.remove(username, email);
+        }
+    }
+
+    public boolean isLoaded() {
+        return filters != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("users.unique.index.checks", skipped, LongAdder::sum)
+                .description("Uniqueness checks answered by the in-memory index, without a query")
+                .tag("result", "skipped")
+                .register(registry);
+        FunctionCounter.builder("users.unique.index.checks", duplicates, LongAdder::sum)
+                .tag("result", "duplicate")
+                .register(registry);
+        FunctionCounter.builder("users.unique.index.checks", falsePositives, LongAdder::sum)
+                .description("Index hits that the database did not confirm")
+                .tag("result", "false_positive")
+                .register(registry);
+        Gauge.builder("users.unique.index.loaded", this, index -> index.isLoaded() ? 1 : 0)
+                .register(registry);
+    }
+
+    static final class Filters {
+        final CountingBloomFilter usernames;
+        final CountingBloomFilter emails;
+
+        Filters(long expectedEntries, double falsePositiveRate) {
+            this.usernames = new CountingBloomFilter(expectedEntries, falsePositiveRate);
+            this.emails = new CountingBloomFilter(expectedEntries, falsePositiveRate);
+        }
+
+        void add(String username, String email) {
+            if (username != null) usernames.add(username);
+            if (email != null) emails.add(email);
+        }
+
+        void remove(String username, String email) {
+            if (username != null) usernames.remove(username);
+            if (email != null) emails.remove(email);
+        }
+    }
+}
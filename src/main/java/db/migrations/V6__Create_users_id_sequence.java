@@ -0,0 +1,32 @@
+package db.migrations;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Cria a sequence {@code users_id_seq} usada pelo gerador "pooled" de {@link br.com.fiap.api.model.User},
+ * que reserva 50 ids por chamada e permite INSERTs em lote (IDENTITY não permite).
+ * Em Java porque o valor inicial depende do maior id já existente.
+ */
+public class V6__Create_users_id_sequence extends BaseJavaMigration {
+
+    // Deve ser igual ao allocationSize do @SequenceGenerator em User
+    private static final int INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id_user), 0) FROM users")) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+            // O otimizador pooled usa os ids (valor - INCREMENT, valor]; o primeiro bloco começa acima do maior id
+            long start = maxId + INCREMENT + 1;
+            statement.execute("CREATE SEQUENCE users_id_seq START WITH " + start + " INCREMENT BY " + INCREMENT);
+        }
+    }
+}
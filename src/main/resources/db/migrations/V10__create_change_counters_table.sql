@@ -0,0 +1,7 @@
+-- Contador de alterações por tabela: muda a cada escrita em users e compõe o ETag das listagens
+CREATE TABLE change_counters (
+    table_name VARCHAR(64) PRIMARY KEY,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+
+INSERT INTO change_counters (table_name, version) VALUES ('users', 0);
@@ -0,0 +1,2 @@
+-- Instância que aceitou o valor: cada BetLimitService soma aos contadores só o que as outras gravaram
+ALTER TABLE bet_spending ADD COLUMN instance_id VARCHAR(36);
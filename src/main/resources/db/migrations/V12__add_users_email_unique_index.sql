@@ -0,0 +1,3 @@
+-- E-mail único: garantia final contra cadastros concorrentes, inclusive de outras instâncias (substitui o índice da V8)
+DROP INDEX idx_users_email;
+CREATE UNIQUE INDEX idx_users_email ON users (email);
@@ -0,0 +1 @@
+CREATE INDEX idx_logs_timestamp ON logs (timestamp);
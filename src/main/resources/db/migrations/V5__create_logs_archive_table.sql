@@ -0,0 +1,8 @@
+CREATE TABLE logs_archive (
+    id BIGINT PRIMARY KEY,
+    level VARCHAR(50) NOT NULL,
+    message VARCHAR(1000) NOT NULL,
+    timestamp TIMESTAMP
+);
+
+CREATE INDEX idx_logs_archive_timestamp ON logs_archive (timestamp);
@@ -0,0 +1,2 @@
+-- Versão para controle de concorrência otimista nas atualizações de usuários
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,5 @@
+-- Busca de usuários: e-mail exato, prefixo de username (já indexado pelo UNIQUE) e prefixo do nome sem diferenciar maiúsculas
+CREATE INDEX idx_users_email ON users (email);
+
+ALTER TABLE users ADD COLUMN client_name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(client_name));
+CREATE INDEX idx_users_client_name_lower ON users (client_name_lower, id_user);
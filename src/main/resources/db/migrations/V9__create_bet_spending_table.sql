@@ -0,0 +1,9 @@
+-- Valores de apostas autorizadas, gravados em lote pelo BetLimitService e usados para reconstruir os contadores
+CREATE TABLE bet_spending (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    spent_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_bet_spending_spent_at ON bet_spending (spent_at);
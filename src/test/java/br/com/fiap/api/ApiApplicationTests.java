@@ -3,7 +3,7 @@ package br.com.fiap.api;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "logs.dir=target/test-logs")
 class ApiApplicationTests {
 
 	@Test
@@ -0,0 +1,273 @@
+package br.com.fiap.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação em porta aleatória e dispara uma
+ * mistura de requisições em /api/v1/users, /auth/login e /api/logs/summary a partir
+ * de muitos clientes em virtual threads. Falha se algum orçamento de latência
+ * (p99/p999), de erros ou de vazão for estourado.
+ * <p>
+ * Os clientes seguem uma taxa fixa e a latência é medida a partir do instante em
+ * que a requisição deveria ter saído, então uma pausa do servidor aparece nos
+ * percentis em vez de simplesmente reduzir o número de amostras.
+ * <p>
+ * Rodar com {@code mvn test -Ploadtest}. Taxa, duração e orçamentos podem ser
+ * ajustados com {@code -Dloadtest.*}, ex.: {@code -Dloadtest.rate=200
+ * -Dloadtest.users.get.p99-ms=50}. Os histogramas completos ficam em
+ * {@code target/loadtest/*.hgrm}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "logs.dir=target/loadtest-logs", "spring.jpa.show-sql=false",
+                // Todos os logins vêm do mesmo IP: o limite de tentativas recusaria a carga
+                "auth.rate-limit.enabled=false" })
+class ApiLoadTest {
+
+    private static final String PASSWORD = "load-pass";
+    private static final int USERS = 200;
+
+    private static final int RATE = Integer.getInteger("loadtest.rate", 50);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 20));
+    private static final double MIN_THROUGHPUT_RATIO = Double.parseDouble(System.getProperty("loadtest.min-throughput-ratio", "0.95"));
+    private static final double MAX_ERROR_RATIO = Double.parseDouble(System.getProperty("loadtest.max-error-ratio", "0"));
+
+    /** Operações da carga, com peso na mistura e orçamentos padrão de p99/p999 em ms. */
+    enum Operation {
+        USER_BY_ID("users.get", 55, 200, 500),
+        USER_PAGE("users.page", 17, 250, 600),
+        LOG_SUMMARY("logs.summary", 25, 250, 600),
+        // Login e cadastro passam por BCrypt (~100 ms de CPU cada): peso baixo para não saturar o pool de hashing
+        LOGIN("auth.login", 2, 1000, 2000),
+        USER_CREATE("users.create", 1, 1000, 2000);
+
+        final String key;
+        final int weight;
+        final long p99Millis;
+        final long p999Millis;
+
+        Operation(String key, int weight, long p99Millis, long p999Millis) {
+            this.key = key;
+            this.weight = weight;
+            this.p99Millis = Long.getLong("loadtest." + key + ".p99-ms", p99Millis);
+            this.p999Millis = Long.getLong("loadtest." + key + ".p999-ms", p999Millis);
+        }
+
+        static Operation pick(ThreadLocalRandom random) {
+            int n = random.nextInt(100);
+            for (Operation operation : values()) {
+                n -= operation.weight;
+                if (n < 0) {
+                    return operation;
+                }
+            }
+            return USER_BY_ID;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicLong sequence = new AtomicLong(System.nanoTime());
+    private final List<User> users = new ArrayList<>();
+    private String bearer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Carga direta pelo repositório com um hash só, para não pagar BCrypt no preparo
+        String hash = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setClientName("Load " + i);
+            user.setUsername("load-" + sequence.incrementAndGet());
+            user.setPassword(hash);
+            user.setBetMaxValue(100.0);
+            users.add(userRepository.save(user));
+        }
+        HttpResponse<String> login = send(Operation.LOGIN, users.get(0));
+        assertEquals(200, login.statusCode());
+        String body = login.body();
+        int start = body.indexOf("\"token\":\"") + 9;
+        bearer = "Bearer " + body.substring(start, body.indexOf('"', start));
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinBudgets() throws Exception {
+        run(WARMUP);
+        Result result = run(MEASURE);
+
+        List<String> violations = new ArrayList<>();
+        Path reportDir = Files.createDirectories(Path.of("target", "loadtest"));
+        System.out.printf("%nload test: %d req/s target, %d clients, %ds%n", RATE, CLIENTS, MEASURE.toSeconds());
+        System.out.printf("%-14s %8s %7s %9s %9s %9s %9s%n", "operation", "count", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = result.histograms.get(operation);
+            long errors = result.errors.get(operation).get();
+            double p50 = millis(histogram.getValueAtPercentile(50));
+            double p99 = millis(histogram.getValueAtPercentile(99));
+            double p999 = millis(histogram.getValueAtPercentile(99.9));
+            System.out.printf("%-14s %8d %7d %9.2f %9.2f %9.2f %9.2f%n", operation.key, histogram.getTotalCount(), errors,
+                    p50, p99, p999, millis(histogram.getMaxValue()));
+            writeDistribution(reportDir.resolve(operation.key + ".hgrm"), histogram);
+
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            if (p99 > operation.p99Millis) {
+                violations.add(String.format("%s p99 %.2f ms > %d ms", operation.key, p99, operation.p99Millis));
+            }
+            if (p999 > operation.p999Millis) {
+                violations.add(String.format("%s p999 %.2f ms > %d ms", operation.key, p999, operation.p999Millis));
+            }
+            if (errors > histogram.getTotalCount() * MAX_ERROR_RATIO) {
+                violations.add(String.format("%s %d/%d requests failed", operation.key, errors, histogram.getTotalCount()));
+            }
+        }
+
+        double throughput = result.completed() / (MEASURE.toNanos() / 1e9);
+        System.out.printf("throughput: %.1f req/s%n", throughput);
+        if (throughput < RATE * MIN_THROUGHPUT_RATIO) {
+            violations.add(String.format("throughput %.1f req/s < %.1f req/s", throughput, RATE * MIN_THROUGHPUT_RATIO));
+        }
+
+        assertTrue(violations.isEmpty(), "load test budgets exceeded: " + violations);
+    }
+
+    private Result run(Duration duration) throws InterruptedException {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            // Microssegundos, 3 dígitos significativos
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new AtomicLong());
+        }
+
+        long intervalNanos = CLIENTS * 1_000_000_000L / RATE;
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Thread> threads = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            long first = start + i * intervalNanos / CLIENTS;
+            threads.add(Thread.ofVirtual().name("load-client-" + i).start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (long intended = first; intended < deadline; intended += intervalNanos) {
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    Operation operation = Operation.pick(random);
+                    boolean ok;
+                    try {
+                        int status = send(operation, users.get(random.nextInt(users.size()))).statusCode();
+                        ok = status >= 200 && status < 300;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    // Latência a partir do horário planejado, não do envio efetivo
+                    recorders.get(operation).recordValue((System.nanoTime() - intended) / 1_000);
+                    if (!ok) {
+                        errors.get(operation).incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        return new Result(histograms, errors);
+    }
+
+    private HttpResponse<String> send(Operation operation, User user) throws IOException, InterruptedException {
+        String base = "http://localhost:" + port;
+        HttpRequest.Builder request = switch (operation) {
+            case USER_BY_ID -> HttpRequest.newBuilder(URI.create(base + "/api/v1/users/" + user.getId_user()))
+                    .header("Authorization", bearer);
+            case USER_PAGE -> HttpRequest.newBuilder(URI.create(base + "/api/v1/users?limit=50"))
+                    .header("Authorization", bearer)
+                    .header("Accept", "application/json");
+            case LOG_SUMMARY -> HttpRequest.newBuilder(URI.create(base + "/api/logs/summary?limit=50"))
+                    .header("Authorization", bearer);
+            case LOGIN -> HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"" + user.getUsername() + "\",\"password\":\"" + PASSWORD + "\"}"));
+            case USER_CREATE -> {
+                long n = sequence.incrementAndGet();
+                yield HttpRequest.newBuilder(URI.create(base + "/api/v1/users"))
+                        .header("Authorization", bearer)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"clientName\":\"Load " + n + "\","
+                                + "\"email\":{\"value\":\"load" + n + "@mail.com\"},"
+                                + "\"username\":{\"value\":\"load-" + n + "\"},"
+                                + "\"password\":{\"value\":\"" + PASSWORD + "\"},"
+                                + "\"betMaxValue\":100}"));
+            }
+        };
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1_000.0);
+        }
+    }
+
+    private record Result(Map<Operation, Histogram> histograms, Map<Operation, AtomicLong> errors) {
+        long completed() {
+            return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum()
+                    - errors.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.fiap.api;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tempo até o primeiro {@code GET /api/healthcheck} com 200, contado a partir da
+ * criação do processo, para o jar do modo de subida rápida (AOT + arquivo CDS +
+ * perfil {@code faststart}) e para o mesmo jar sem esses recursos. Falha se a
+ * mediana do modo rápido passar do orçamento ou se a vantagem sobre a subida
+ * comum cair abaixo do mínimo (ex.: arquivo CDS que deixou de ser aceito pela JVM,
+ * o que ela só reporta como aviso).
+ * <p>
+ * Roda na fase {@code integration-test} do perfil Maven {@code faststart}, que gera
+ * o jar e o arquivo CDS: {@code mvn -Pfaststart verify}. Ajustes:
+ * {@code -Dstartup.runs=5 -Dstartup.budget-ms=8000 -Dstartup.min-speedup=1.5}.
+ * Saída de cada execução em {@code target/startup/*.log}.
+ */
+@Tag("startup")
+class StartupBenchmarkTest {
+
+    private static final String JAR = System.getProperty("startup.jar");
+    private static final String FAST_JVM_ARGS = System.getProperty("startup.jvm-args", "");
+    private static final int RUNS = Integer.getInteger("startup.runs", 3);
+    private static final long BUDGET_MILLIS = Long.getLong("startup.budget-ms", 30_000);
+    private static final double MIN_SPEEDUP = Double.parseDouble(System.getProperty("startup.min-speedup", "1.2"));
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("startup.timeout-seconds", 180));
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void fastStartModeStaysWithinBudget() throws Exception {
+        assertNotNull(JAR, "startup.jar not set; run with mvn -Pfaststart verify");
+        Path reportDir = Files.createDirectories(Path.of("target", "startup"));
+
+        long[] fast = new long[RUNS];
+        long[] regular = new long[RUNS];
+        // Alterna os modos para que variações da máquina afetem os dois igualmente
+        for (int run = 0; run < RUNS; run++) {
+            regular[run] = timeToHealthy(List.of(), reportDir.resolve("regular-" + run + ".log"));
+            fast[run] = timeToHealthy(splitArgs(FAST_JVM_ARGS), reportDir.resolve("faststart-" + run + ".log"));
+        }
+
+        long fastMedian = median(fast);
+        long regularMedian = median(regular);
+        double speedup = (double) regularMedian / fastMedian;
+        System.out.printf("%nstartup to healthy (median of %d): regular=%d ms %s, faststart=%d ms %s, speedup=%.2fx%n",
+                RUNS, regularMedian, Arrays.toString(regular), fastMedian, Arrays.toString(fast), speedup);
+
+        List<String> violations = new ArrayList<>();
+        if (fastMedian > BUDGET_MILLIS) {
+            violations.add(String.format("faststart median %d ms > %d ms", fastMedian, BUDGET_MILLIS));
+        }
+        if (speedup < MIN_SPEEDUP) {
+            violations.add(String.format("speedup %.2fx < %.2fx", speedup, MIN_SPEEDUP));
+        }
+        assertTrue(violations.isEmpty(), "startup budgets exceeded: " + violations);
+    }
+
+    private long timeToHealthy(List<String> jvmArgs, Path log) throws Exception {
+        int port = freePort();
+        Path logsDir = Files.createTempDirectory("startup-logs");
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-jar", JAR, "--server.port=" + port, "--logs.dir=" + logsDir));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/healthcheck"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // Porta ainda não aberta
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("application not healthy after " + TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> splitArgs(String args) {
+        return Arrays.stream(args.trim().split("\\s+")).filter(arg -> !arg.isEmpty()).toList();
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
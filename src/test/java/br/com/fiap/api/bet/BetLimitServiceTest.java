@@ -0,0 +1,182 @@
+package br.com.fiap.api.bet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.fiap.api.dto.BetAuthorizationResponse;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import br.com.fiap.api.service.UserCache;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+class BetLimitServiceTest {
+
+    @Autowired
+    private BetLimitService betLimitService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void insertUser() {
+        User user = new User();
+        user.setClientName("Bettor");
+        user.setUsername("bettor-" + System.nanoTime());
+        user.setPassword("hash");
+        user.setBetMaxValue(100.0);
+        userId = userRepository.save(user).getId_user();
+    }
+
+    @Test
+    void enforcesTheLimitAndRebuildsFromTheSpendingTable() {
+        BetAuthorizationResponse first = betLimitService.authorize(userId, 60.0).orElseThrow();
+        assertTrue(first.isApproved());
+        assertEquals(40.0, first.getRemaining());
+
+        BetAuthorizationResponse over = betLimitService.authorize(userId, 50.0).orElseThrow();
+        assertFalse(over.isApproved());
+        assertEquals(60.0, over.getSpent());
+
+        assertTrue(betLimitService.authorize(userId, 40.0).orElseThrow().isApproved());
+        betLimitService.flush();
+
+        Long stored = jdbcTemplate.queryForObject(
+                "SELECT SUM(amount_cents) FROM bet_spending WHERE user_id = ?", Long.class, userId);
+        assertEquals(10_000L, stored);
+
+        // Nova instância, como depois de um restart
+        BetLimitService restarted = new BetLimitService(userCache, jdbcTemplate,
+                new SpendingCounters(Duration.ofHours(24), 24, 16), 100, 60_000, Clock.systemUTC());
+        restarted.rebuild();
+        assertEquals(100.0, restarted.spent(userId));
+        assertFalse(restarted.authorize(userId, 0.01).orElseThrow().isApproved());
+    }
+
+    @Test
+    void instancesAddWhatTheOthersFlushedButNotTheirOwnRows() {
+        BetLimitService a = newInstance();
+        BetLimitService b = newInstance();
+
+        assertTrue(a.authorize(userId, 60.0).orElseThrow().isApproved());
+        assertTrue(b.authorize(userId, 30.0).orElseThrow().isApproved());
+        a.flush();
+        b.flush();
+        a.reconcile();
+        b.reconcile();
+
+        assertEquals(90.0, a.spent(userId));
+        assertEquals(90.0, b.spent(userId));
+        assertFalse(b.authorize(userId, 20.0).orElseThrow().isApproved());
+
+        // Ler de novo não soma duas vezes
+        a.reconcile();
+        assertEquals(90.0, a.spent(userId));
+    }
+
+    @Test
+    void aMissingIdIsWaitedForUntilTheGapTimeout() {
+        MutableClock clock = new MutableClock();
+        BetLimitService reader = new BetLimitService(userCache, jdbcTemplate,
+                new SpendingCounters(Duration.ofHours(24), 24, 16), 100, 60_000, clock);
+        reader.rebuild();
+        Long base = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM bet_spending", Long.class);
+        try {
+            reconcileAroundGaps(reader, clock, base);
+        } finally {
+            // Os ids foram dados à mão: a identidade segue depois deles
+            jdbcTemplate.execute("ALTER TABLE bet_spending ALTER COLUMN id RESTART WITH " + (base + 6));
+        }
+    }
+
+    private void reconcileAroundGaps(BetLimitService reader, MutableClock clock, long base) {
+        // base + 1 ainda não confirmado; base + 2 já gravado por outra instância
+        insert(base + 2, 10_00, clock.millis());
+        reader.reconcile();
+        assertEquals(10.0, reader.spent(userId));
+
+        insert(base + 1, 20_00, clock.millis());
+        reader.reconcile();
+        assertEquals(30.0, reader.spent(userId));
+
+        // Um id que nunca chega é deixado para trás depois do timeout
+        insert(base + 4, 5_00, clock.millis());
+        reader.reconcile();
+        clock.advance(60_000);
+        reader.reconcile();
+        insert(base + 5, 1_00, clock.millis());
+        reader.reconcile();
+        assertEquals(36.0, reader.spent(userId));
+        assertEquals(4L, reader.getStats().get("reconciled"));
+    }
+
+    @Test
+    void unknownUserAndInvalidAmount() {
+        assertTrue(betLimitService.authorize(Long.MAX_VALUE, 10.0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> betLimitService.authorize(userId, 0.0));
+    }
+
+    private BetLimitService newInstance() {
+        BetLimitService service = new BetLimitService(userCache, jdbcTemplate,
+                new SpendingCounters(Duration.ofHours(24), 24, 16), 100, 60_000, Clock.systemUTC());
+        service.rebuild();
+        return service;
+    }
+
+    private void insert(long id, long amountCents, long atMillis) {
+        jdbcTemplate.update("INSERT INTO bet_spending (id, user_id, amount_cents, spent_at, instance_id) VALUES (?, ?, ?, ?, ?)",
+                id, userId, amountCents,
+                Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(atMillis), ZoneOffset.UTC)), "other");
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis = System.currentTimeMillis();
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.fiap.api.bet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+class SpendingCountersTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final SpendingCounters counters = new SpendingCounters(Duration.ofHours(24), 24, 16);
+
+    @Test
+    void approvesUntilTheLimitIsReached() {
+        assertTrue(counters.tryAdd(1, 10_000, 6_000, 0).approved());
+        SpendingCounters.Decision denied = counters.tryAdd(1, 10_000, 5_000, 0);
+        assertFalse(denied.approved());
+        assertEquals(6_000, denied.spentCents());
+        assertTrue(counters.tryAdd(1, 10_000, 4_000, 0).approved());
+        assertEquals(10_000, counters.spent(1, 0));
+        // Outro usuário tem o próprio contador
+        assertTrue(counters.tryAdd(2, 10_000, 10_000, 0).approved());
+    }
+
+    @Test
+    void spendingLeavesTheWindowAfterItsBucketExpires() {
+        counters.tryAdd(1, 10_000, 7_000, 0);
+        counters.tryAdd(1, 10_000, 3_000, 5 * HOUR);
+
+        assertEquals(10_000, counters.spent(1, 24 * HOUR - 1));
+        assertEquals(3_000, counters.spent(1, 24 * HOUR));
+        assertTrue(counters.tryAdd(1, 10_000, 7_000, 24 * HOUR).approved());
+        assertEquals(7_000, counters.spent(1, 29 * HOUR));
+    }
+
+    @Test
+    void rebuildIgnoresSpendingOutsideTheWindow() {
+        long now = 100 * HOUR;
+        counters.record(1, 500, now - 25 * HOUR, now);
+        counters.record(1, 700, now - 2 * HOUR, now);
+        counters.record(1, 300, now, now);
+
+        assertEquals(1_000, counters.spent(1, now));
+    }
+
+    @Test
+    void evictsUsersWithoutSpendingInTheWindow() {
+        counters.tryAdd(1, 100, 10, 0);
+        counters.tryAdd(2, 100, 10, 10 * HOUR);
+
+        assertEquals(1, counters.evictIdle(24 * HOUR));
+        assertEquals(1, counters.size());
+        assertEquals(10, counters.spent(2, 24 * HOUR));
+    }
+
+    @Test
+    void neverApprovesMoreThanTheLimitUnderContention() throws Exception {
+        int threads = 16;
+        int attempts = 2_000;
+        LongAdder approvedHot = new LongAdder();
+        LongAdder approvedOwn = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long ownUser = 1_000 + t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < attempts; i++) {
+                    // Todos disputam o usuário 1; cada thread também tem o seu
+                    if (counters.tryAdd(1, 5_000, 1, 0).approved()) approvedHot.increment();
+                    if (counters.tryAdd(ownUser, 1_500, 1, 0).approved()) approvedOwn.increment();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(5_000, approvedHot.sum());
+        assertEquals(5_000, counters.spent(1, 0));
+        assertEquals(threads * 1_500L, approvedOwn.sum());
+    }
+}
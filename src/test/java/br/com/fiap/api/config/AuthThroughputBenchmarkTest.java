@@ -0,0 +1,115 @@
+package br.com.fiap.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+
+/**
+ * Requisições por segundo em GET /api/v1/users/{id} com HTTP Basic (BCrypt a cada
+ * requisição) e com token Bearer (HMAC). Rodar com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "logs.dir=target/test-logs")
+class AuthThroughputBenchmarkTest {
+
+    private static final int CLIENTS = 8;
+    private static final Duration WARMUP = Duration.ofSeconds(2);
+    private static final Duration MEASURE = Duration.ofSeconds(5);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void tokenAuthenticationOutperformsBasic() throws Exception {
+        User user = new User();
+        user.setClientName("Benchmark");
+        user.setUsername("bench-" + System.nanoTime());
+        user.setPassword(passwordEncoder.encode("bench-pass"));
+        user.setBetMaxValue(0.0);
+        Long id = userRepository.save(user).getId_user();
+
+        String basic = "Basic " + Base64.getEncoder()
+                .encodeToString((user.getUsername() + ":bench-pass").getBytes(StandardCharsets.UTF_8));
+        String bearer = "Bearer " + login(user.getUsername(), "bench-pass");
+        URI target = URI.create("http://localhost:" + port + "/api/v1/users/" + id);
+
+        double basicRps = measure(target, basic);
+        double tokenRps = measure(target, bearer);
+        System.out.printf("auth benchmark: basic=%.1f req/s, token=%.1f req/s (%.1fx)%n",
+                basicRps, tokenRps, tokenRps / basicRps);
+
+        assertTrue(tokenRps > basicRps, "token auth should be faster than Basic");
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        String body = response.body();
+        int start = body.indexOf("\"token\":\"") + 9;
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private double measure(URI target, String authorization) throws Exception {
+        run(target, authorization, WARMUP);
+        return run(target, authorization, MEASURE) / (MEASURE.toNanos() / 1e9);
+    }
+
+    private long run(URI target, String authorization, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(target).header("Authorization", authorization).GET().build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        (status == 200 ? completed : failed).incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failed.get(), "requests failed during the benchmark");
+        return completed.get();
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.fiap.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", " 192.168.1.10 ", ""));
+
+    @Test
+    void usesTheRightmostUntrustedForwardedAddress() {
+        assertEquals("203.0.113.7", resolve("10.1.2.3", "1.1.1.1, 203.0.113.7, 192.168.1.10"));
+        // Tudo confiável: o mais à esquerda
+        assertEquals("10.9.9.9", resolve("10.1.2.3", "10.9.9.9, 192.168.1.10"));
+        assertEquals("10.1.2.3", resolve("10.1.2.3", null));
+    }
+
+    @Test
+    void ignoresForwardedForFromUntrustedConnectionsAndNonAddresses() {
+        assertEquals("198.51.100.4", resolve("198.51.100.4", "203.0.113.7"));
+        // Nome de host não é resolvido: fica o último proxy confiável
+        assertEquals("10.1.2.3", resolve("10.1.2.3", "evil.example.com"));
+        assertFalse(ClientIpResolver.isIpLiteral("999.1.1.1"));
+        assertFalse(ClientIpResolver.isIpLiteral("abc"));
+        assertTrue(ClientIpResolver.isIpLiteral("2001:db8::1"));
+    }
+
+    private String resolve(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return resolver.resolve(request);
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.fiap.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.fiap.api.exception.DatabaseBusyException;
+
+class JdbcAdmissionDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+
+    @Test
+    void closingTheConnectionReleasesThePermitOnlyOnce() throws Exception {
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+        JdbcAdmissionDataSource dataSource = new JdbcAdmissionDataSource(target, 1, 0, 10, 1);
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.getInUse());
+        connection.close();
+        connection.close();
+
+        assertEquals(0, dataSource.getInUse());
+        verify(raw, atLeastOnce()).close();
+        // A vaga voltou uma vez só: a próxima conexão é concedida e a seguinte não
+        Connection next = dataSource.getConnection();
+        assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+        next.close();
+    }
+
+    @Test
+    void givesUpAfterTheMaximumWait() throws Exception {
+        when(target.getConnection()).thenAnswer(i -> mock(Connection.class));
+        JdbcAdmissionDataSource dataSource = new JdbcAdmissionDataSource(target, 1, 1, 100, 3);
+
+        Connection held = dataSource.getConnection();
+        DatabaseBusyException busy = assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+
+        assertEquals(3, busy.getRetryAfterSeconds());
+        assertEquals(1, dataSource.getRejectedCount());
+        held.close();
+    }
+
+    @Test
+    void waiterGetsThePermitWhenItIsReleased() throws Exception {
+        when(target.getConnection()).thenAnswer(i -> mock(Connection.class));
+        JdbcAdmissionDataSource dataSource = new JdbcAdmissionDataSource(target, 1, 1, 5_000, 1);
+
+        Connection held = dataSource.getConnection();
+        CompletableFuture<Connection> waiter = connectAsync(dataSource);
+        awaitWaiting(dataSource);
+        held.close();
+
+        waiter.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, dataSource.getRejectedCount());
+    }
+
+    @Test
+    void rejectsImmediatelyWhenTheWaitingLineIsFull() throws Exception {
+        when(target.getConnection()).thenAnswer(i -> mock(Connection.class));
+        JdbcAdmissionDataSource dataSource = new JdbcAdmissionDataSource(target, 1, 1, 5_000, 1);
+
+        Connection held = dataSource.getConnection();
+        CompletableFuture<Connection> waiter = connectAsync(dataSource);
+        awaitWaiting(dataSource);
+
+        long start = System.nanoTime();
+        assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "should not wait when the line is full");
+
+        held.close();
+        waiter.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, dataSource.getInUse());
+    }
+
+    @Test
+    void failedAcquisitionReturnsThePermit() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("pool down"));
+        JdbcAdmissionDataSource dataSource = new JdbcAdmissionDataSource(target, 1, 0, 10, 1);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.getInUse());
+    }
+
+    private static CompletableFuture<Connection> connectAsync(DataSource dataSource) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static void awaitWaiting(JdbcAdmissionDataSource dataSource) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dataSource.getWaiting() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, dataSource.getWaiting());
+    }
+}
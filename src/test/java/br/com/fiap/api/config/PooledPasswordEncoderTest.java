@@ -0,0 +1,76 @@
+package br.com.fiap.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import br.com.fiap.api.exception.HashingUnavailableException;
+import br.com.fiap.api.service.PasswordHashingService;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+@AutoConfigureMockMvc
+// Mesma configuração do HealthcheckTest, para reaproveitar o contexto
+@AutoConfigureObservability(tracing = false)
+class PooledPasswordEncoderTest {
+
+    private static final String BASIC = "Basic " + Base64.getEncoder().encodeToString("user:1234".getBytes());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @Test
+    void basicAuthenticationHashesInThePool() throws Exception {
+        assertInstanceOf(PooledPasswordEncoder.class, passwordEncoder);
+        long before = completed();
+
+        mockMvc.perform(get("/api/logs/pipeline").header(HttpHeaders.AUTHORIZATION, BASIC))
+                .andExpect(status().isOk());
+
+        assertTrue(completed() > before);
+    }
+
+    @Test
+    void saturatedPoolDuringAuthenticationAnswers503() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/logs/pipeline");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new HashingUnavailableFilter(handlerExceptionResolver).doFilter(request, response, (req, res) -> {
+            throw new HashingUnavailableException("Password hashing is saturated, try again later.", 3);
+        });
+
+        assertEquals(503, response.getStatus());
+        assertEquals("3", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"status\":503"));
+    }
+
+    private long completed() {
+        return (long) passwordHashingService.getStats().get("completed");
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.fiap.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.fiap.api.config.ReadReplicaDataSource.Strategy;
+
+class ReadReplicaDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource first = mock(DataSource.class);
+    private final DataSource second = mock(DataSource.class);
+
+    @AfterEach
+    void closeContext() {
+        ReplicaRoutingContext.close();
+    }
+
+    @Test
+    void roundRobinAlternatesBetweenReplicas() throws Exception {
+        stub(first, second);
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(primary, List.of(first, second), Strategy.ROUND_ROBIN);
+
+        for (int i = 0; i < 4; i++) {
+            dataSource.getConnection().close();
+        }
+
+        assertEquals(2, dataSource.getReads(0));
+        assertEquals(2, dataSource.getReads(1));
+        assertEquals(0, dataSource.getInUse(0) + dataSource.getInUse(1));
+    }
+
+    @Test
+    void leastBusyPicksTheReplicaWithFewerConnectionsInUse() throws Exception {
+        stub(first, second);
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(primary, List.of(first, second), Strategy.LEAST_BUSY);
+
+        Connection held = dataSource.getConnection();
+        dataSource.getConnection().close();
+        // Seria a vez da primeira no rodízio, mas ela ainda tem uma conexão em uso
+        Connection next = dataSource.getConnection();
+
+        assertEquals(1, dataSource.getReads(0));
+        assertEquals(2, dataSource.getReads(1));
+        assertEquals(1, dataSource.getInUse(0));
+        assertEquals(1, dataSource.getInUse(1));
+        held.close();
+        next.close();
+    }
+
+    @Test
+    void readsOfTheSameRequestStayOnOneReplica() throws Exception {
+        stub(first, second);
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(primary, List.of(first, second), Strategy.ROUND_ROBIN);
+
+        ReplicaRoutingContext.open(false);
+        for (int i = 0; i < 3; i++) {
+            dataSource.getConnection().close();
+        }
+
+        assertEquals(3, dataSource.getReads(0) + dataSource.getReads(1));
+        assertEquals(3, Math.max(dataSource.getReads(0), dataSource.getReads(1)));
+    }
+
+    @Test
+    void recentWritersReadFromThePrimary() throws Exception {
+        stub(primary, first);
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(primary, List.of(first), Strategy.ROUND_ROBIN);
+
+        ReplicaRoutingContext.open(true);
+        dataSource.getConnection().close();
+
+        assertEquals(0, dataSource.getReads(0));
+        assertEquals(1, dataSource.getStickyReads());
+    }
+
+    @Test
+    void fallsBackToAnotherReplicaAndThenToThePrimary() throws Exception {
+        stub(primary, second);
+        when(first.getConnection()).thenThrow(new SQLException("replica down"));
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(primary, List.of(first, second), Strategy.ROUND_ROBIN);
+
+        dataSource.getConnection().close();
+        assertEquals(1, dataSource.getReads(1));
+
+        when(second.getConnection()).thenThrow(new SQLException("replica down"));
+        dataSource.getConnection().close();
+
+        assertEquals(1, dataSource.getPrimaryFallbacks());
+        assertEquals(3, dataSource.getFailures());
+        assertEquals(0, dataSource.getInUse(0) + dataSource.getInUse(1));
+    }
+
+    private static void stub(DataSource... dataSources) throws SQLException {
+        for (DataSource dataSource : dataSources) {
+            when(dataSource.getConnection()).thenAnswer(i -> mock(Connection.class));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.fiap.api.config;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.fiap.api.repository.UserRepository;
+import br.com.fiap.api.service.UserService;
+
+// Duas instâncias H2: o testdb de sempre como primário e outra como réplica (sem replicação:
+// os dados de cada uma mostram de onde veio a leitura)
+@SpringBootTest(properties = {
+        "logs.dir=target/test-logs",
+        "db.replicas.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "db.replicas.sticky-ms=60000" })
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    private static final String INSERT_SQL =
+            "INSERT INTO users (client_name, username, password, bet_max_value) VALUES (?, ?, 'hash', 10)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "fiap")
+                .locations("classpath:db/migrations")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        String name = "replica-only-" + System.nanoTime();
+        replica().update(INSERT_SQL, "Replica", name);
+
+        assertTrue(userRepository.findByUsername(name).isPresent());
+        assertTrue(userService.listPage(0L, UserService.MAX_PAGE_SIZE).getItems().stream()
+                .anyMatch(user -> user.getUsername().equals(name)));
+        // Fora de transação somente leitura (aqui, JdbcTemplate direto) é o primário
+        assertTrue(jdbcTemplate.queryForList("SELECT id_user FROM users WHERE username = ?", Long.class, name).isEmpty());
+
+        ReadWriteRoutingDataSource routing = assertInstanceOf(ReadWriteRoutingDataSource.class, dataSource);
+        assertTrue(routing.getReplicas().getReads(0) > 0);
+    }
+
+    @Test
+    void aClientReadsItsOwnWritesFromThePrimary() throws Exception {
+        String name = "primary-only-" + System.nanoTime();
+        jdbcTemplate.update(INSERT_SQL, "Primary", name);
+        Long id = jdbcTemplate.queryForObject("SELECT id_user FROM users WHERE username = ?", Long.class, name);
+        String writer = "Bearer " + tokenService.issue("writer-" + System.nanoTime());
+        String reader = "Bearer " + tokenService.issue("reader-" + System.nanoTime());
+        String search = "/api/v1/users/search?username=" + name;
+
+        // Sem escrever, os dois leem da réplica, que não tem o usuário
+        mockMvc.perform(get(search).header("Authorization", writer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+
+        mockMvc.perform(patch("/api/v1/users/" + id).header("Authorization", writer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientName\": \"Primary changed\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(search).header("Authorization", writer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].clientName").value("Primary changed"));
+        mockMvc.perform(get(search).header("Authorization", reader))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "fiap"));
+    }
+}
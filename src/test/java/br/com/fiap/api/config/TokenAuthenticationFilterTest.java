@@ -0,0 +1,44 @@
+package br.com.fiap.api.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+@AutoConfigureMockMvc
+// Mesma configuração do HealthcheckTest, para reaproveitar o contexto
+@AutoConfigureObservability(tracing = false)
+class TokenAuthenticationFilterTest {
+
+    private static final String INVALID = "Bearer not-a-valid-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    void invalidTokenOnAPublicPathIsIgnored() throws Exception {
+        mockMvc.perform(get("/api/healthcheck").header(HttpHeaders.AUTHORIZATION, INVALID))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health").header(HttpHeaders.AUTHORIZATION, INVALID))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void protectedPathsStillNeedAValidToken() throws Exception {
+        mockMvc.perform(get("/api/logs/pipeline").header(HttpHeaders.AUTHORIZATION, INVALID))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/logs/pipeline")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue("user")))
+                .andExpect(status().isOk());
+    }
+}
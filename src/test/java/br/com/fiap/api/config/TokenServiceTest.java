@@ -0,0 +1,40 @@
+package br.com.fiap.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void issuedTokenIsAcceptedUntilItExpires() {
+        TokenService issuer = new TokenService("secret", 60, Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = issuer.issue("joao");
+
+        assertEquals("joao", issuer.verify(token));
+        assertEquals("joao", new TokenService("secret", 60, Clock.fixed(NOW.plusSeconds(59), ZoneOffset.UTC)).verify(token));
+        assertNull(new TokenService("secret", 60, Clock.offset(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofSeconds(60))).verify(token));
+    }
+
+    @Test
+    void rejectsTamperedOrForeignTokens() {
+        TokenService service = new TokenService("secret", 60, Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = service.issue("joao");
+        String forged = new TokenService("other", 60, Clock.fixed(NOW, ZoneOffset.UTC)).issue("joao");
+        String otherUser = service.issue("maria");
+
+        assertNull(service.verify(forged));
+        assertNull(service.verify(otherUser.substring(0, otherUser.indexOf('.')) + token.substring(token.indexOf('.'))));
+        assertNull(service.verify("not-a-token"));
+        assertNull(service.verify("a.b"));
+        assertNull(service.verify(null));
+    }
+}
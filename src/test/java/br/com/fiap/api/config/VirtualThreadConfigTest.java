@@ -0,0 +1,40 @@
+package br.com.fiap.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.fiap.api.service.UserService;
+
+@SpringBootTest(properties = { "logs.dir=target/test-logs", "spring.threads.virtual.enabled=true" })
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void databaseAccessIsBoundedByThePoolSize() throws Exception {
+        JdbcAdmissionDataSource admission = assertInstanceOf(JdbcAdmissionDataSource.class, dataSource);
+        HikariDataSource hikari = admission.unwrap(HikariDataSource.class);
+
+        assertEquals(hikari.getMaximumPoolSize(), admission.getStats().get("permits"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+        userService.searchForId(100L);
+        // JdbcTemplate e JPA devolvem as vagas ao fechar as conexões
+        assertEquals(0, admission.getInUse());
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.fiap.api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.fiap.api.ApiApplication;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.service.UserService;
+
+/**
+ * Requisições por segundo com threads de plataforma e com virtual threads, sob muita
+ * concorrência e I/O lento (chamada bloqueante de {@value #SLOW_IO_MILLIS} ms antes de
+ * buscar o usuário). O pool do Tomcat é reduzido para {@value #TOMCAT_THREADS} threads
+ * para o teto do modo de plataforma aparecer mesmo em máquinas pequenas.
+ * Rodar com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class VirtualThreadThroughputBenchmarkTest {
+
+    private static final int CLIENTS = 400;
+    private static final int TOMCAT_THREADS = 20;
+    private static final long SLOW_IO_MILLIS = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASURE = Duration.ofSeconds(8);
+
+    /** Endpoint só do benchmark; fora dele é ignorado pelo scan, por ser classe interna de teste. */
+    @RestController
+    static class SlowIoController {
+
+        @Autowired
+        private UserService userService;
+
+        @GetMapping("/bench/slow-io")
+        public User slowIo() throws InterruptedException {
+            // Simula uma dependência lenta (serviço externo, disco de rede)
+            Thread.sleep(SLOW_IO_MILLIS);
+            return userService.searchForId(100L).orElseThrow();
+        }
+    }
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void virtualThreadsSustainMoreThroughputWithSlowIo() throws Exception {
+        double platform = measure(false);
+        double virtual = measure(true);
+        System.out.printf("thread benchmark (%d clients, %d ms I/O, %d Tomcat threads): platform=%.1f req/s, virtual=%.1f req/s (%.1fx)%n",
+                CLIENTS, SLOW_IO_MILLIS, TOMCAT_THREADS, platform, virtual, virtual / platform);
+
+        assertTrue(virtual > platform * 1.5, "virtual threads should not be capped by the Tomcat pool");
+    }
+
+    private double measure(boolean virtualThreads) throws Exception {
+        // Argumentos de linha de comando, para prevalecer sobre o application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiApplication.class, SlowIoController.class)
+                .run("--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--spring.jpa.show-sql=false",
+                        "--logs.dir=" + Files.createTempDirectory("thread-benchmark"),
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String bearer = "Bearer " + context.getBean(TokenService.class).issue("admin");
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bench/slow-io"))
+                    .header("Authorization", bearer)
+                    .GET()
+                    .build();
+
+            run(request, WARMUP);
+            return run(request, MEASURE) / (MEASURE.toNanos() / 1e9);
+        }
+    }
+
+    private long run(HttpRequest request, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status != 200) {
+                            failed.incrementAndGet();
+                        } else if (System.nanoTime() < deadline) {
+                            // Só conta o que terminou dentro da janela; com 400 clientes a diferença é grande
+                            completed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failed.get(), "requests failed during the benchmark");
+        return completed.get();
+    }
+}
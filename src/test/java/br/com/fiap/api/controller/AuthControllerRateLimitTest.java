@@ -0,0 +1,128 @@
+package br.com.fiap.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Base64;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import br.com.fiap.api.service.UserCache;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+@AutoConfigureMockMvc
+// Mesma configuração do HealthcheckTest, para reaproveitar o contexto
+@AutoConfigureObservability(tracing = false)
+class AuthControllerRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Test
+    void loginAttemptsAboveTheLimitGet429WithoutTouchingTheDatabase() throws Exception {
+        User user = new User();
+        user.setClientName("Rate limit");
+        user.setUsername("rate-limit-" + System.nanoTime());
+        user.setPassword("not-a-bcrypt-hash");
+        user.setBetMaxValue(10.0);
+        userRepository.save(user);
+        String body = "{\"username\":\"" + user.getUsername() + "\",\"password\":\"wrong\"}";
+
+        // auth.rate-limit.username.capacity=5
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        Object lookups = lookups();
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+        assertEquals(lookups, lookups());
+    }
+
+    @Test
+    void passwordResetIsLimitedBeforeBasicAuthentication() throws Exception {
+        String username = "reset-limit-" + System.nanoTime();
+        String basic = "Basic " + Base64.getEncoder().encodeToString((username + ":wrong").getBytes());
+        String body = "{\"currentPassword\":\"wrong\",\"newPassword\":\"other123\"}";
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(patch("/auth/" + username + "/password").header("Authorization", basic)
+                            .contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // O filtro do Basic (busca do usuário + BCrypt) nem chega a rodar
+        Object lookups = lookups();
+        mockMvc.perform(patch("/auth/" + username + "/password").header("Authorization", basic)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+        assertEquals(lookups, lookups());
+    }
+
+    @Test
+    void clientIpComesFromForwardedForOnlyBehindATrustedProxy() throws Exception {
+        String prefix = "ip-limit-" + System.nanoTime() + "-";
+        // auth.rate-limit.ip.capacity=20: clientes diferentes atrás do mesmo balanceador não dividem o limite
+        for (int i = 0; i < 25; i++) {
+            String client = "203.0.113." + i;
+            mockMvc.perform(post("/auth/login").with(remoteAddr("10.0.0.5"))
+                            .header("X-Forwarded-For", "198.51.100.1, " + client)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"" + prefix + i + "\",\"password\":\"x\"}"))
+                    .andExpect(result -> assertNotEquals(429, result.getResponse().getStatus()));
+        }
+
+        // Conexão direta de fora: o cabeçalho forjado é ignorado e todos contam para o mesmo IP
+        String direct = "198.51.100." + (System.nanoTime() % 200 + 20);
+        int limited = 0;
+        for (int i = 0; i < 25; i++) {
+            int status = mockMvc.perform(post("/auth/login").with(remoteAddr(direct))
+                            .header("X-Forwarded-For", "203.0.113." + i)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"" + prefix + "direct-" + i + "\",\"password\":\"x\"}"))
+                    .andReturn().getResponse().getStatus();
+            if (status == 429) limited++;
+        }
+        // 5 acima da capacidade (menos algum token reposto durante o laço)
+        assertTrue(limited >= 4, "recusadas: " + limited);
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private Object lookups() {
+        Map<String, Object> stats = userCache.getStats();
+        return (long) stats.get("hits") + (long) stats.get("misses") + (long) stats.get("credentialBypasses");
+    }
+}
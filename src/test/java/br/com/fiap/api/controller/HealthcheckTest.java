@@ -0,0 +1,64 @@
+package br.com.fiap.api.controller;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+@AutoConfigureMockMvc
+// Testes desligam a exportação de métricas por padrão
+@AutoConfigureObservability(tracing = false)
+class HealthcheckTest {
+
+    // Usuário padrão de desenvolvimento (SecurityConfig)
+    private static final String BASIC = "Basic " + Base64.getEncoder().encodeToString("user:1234".getBytes());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void readinessCoversDatabaseAndLogSink() throws Exception {
+        mockMvc.perform(get("/api/healthcheck"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components.db").value("UP"))
+                .andExpect(jsonPath("$.components.logSink").value("UP"));
+    }
+
+    @Test
+    void prometheusExposesServiceLogAndPoolMetrics() throws Exception {
+        // Gera ao menos uma chamada ao UserService e uma requisição HTTP medida
+        mockMvc.perform(get("/api/v1/users/100").header("Authorization", BASIC))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", BASIC))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("users_service_seconds_bucket{"),
+                        containsString("method=\"searchForId\""),
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("uri=\"/api/v1/users/{id}\""),
+                        containsString("auth_hashing_duration_seconds_count"),
+                        containsString("logs_write_seconds_count"),
+                        containsString("logs_written_bytes_total"),
+                        containsString("logs_entries"),
+                        containsString("hikaricp_connections_active"))));
+    }
+
+    @Test
+    void actuatorDetailsRequireAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.fiap.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import br.com.fiap.api.config.TokenService;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import br.com.fiap.api.service.PasswordHashingService;
+import br.com.fiap.api.service.UserUniquenessIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+@AutoConfigureMockMvc
+// Mesma configuração do HealthcheckTest, para reaproveitar o contexto
+@AutoConfigureObservability(tracing = false)
+class UserControllerDuplicateTest {
+
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserUniquenessIndex userUniquenessIndex;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    void duplicatesGet409BeforeHashingAndNewValuesSkipTheDatabaseCheck() throws Exception {
+        String prefix = "unique-" + System.nanoTime();
+        User existing = new User();
+        existing.setClientName("Unique");
+        existing.setUsername(prefix);
+        existing.setEmail(prefix + "@mail.com");
+        existing.setPassword("hash");
+        existing.setBetMaxValue(10.0);
+        existing = userRepository.save(existing);
+        // Gravado direto no repositório: só entra no índice na próxima carga
+        while (!userUniquenessIndex.isLoaded()) {
+            Thread.sleep(10);
+        }
+        userUniquenessIndex.rebuild();
+
+        Object hashed = hashed();
+        create(prefix, prefix + "-other@mail.com")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").value("Username already exists"));
+        create(prefix + "-other", prefix + "@mail.com")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email already in use"));
+        assertEquals(hashed, hashed());
+
+        double skipped = skipped();
+        create(prefix + "-new", prefix + "-new@mail.com").andExpect(status().isCreated());
+        assertEquals(skipped + 2, skipped());
+        // Incluído no índice ao gravar
+        create(prefix + "-new", prefix + "-new2@mail.com").andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/v1/users/" + existing.getId_user()).header("Authorization", bearer()))
+                .andExpect(status().isNoContent());
+        create(prefix, prefix + "@mail.com").andExpect(status().isCreated());
+        assertTrue(userRepository.existsByUsername(prefix));
+    }
+
+    private ResultActions create(String username, String email) throws Exception {
+        return mockMvc.perform(post("/api/v1/users").header("Authorization", bearer())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"clientName\":\"Unique\",\"email\":{\"value\":\"" + email + "\"},"
+                        + "\"username\":{\"value\":\"" + username + "\"},"
+                        + "\"password\":{\"value\":\"secret123\"},\"betMaxValue\":10}"));
+    }
+
+    // Token em vez de HTTP Basic: a autenticação não passa pelo pool de hashing medido aqui
+    private String bearer() {
+        return "Bearer " + tokenService.issue("user");
+    }
+
+    private Object hashed() {
+        return passwordHashingService.getStats().get("completed");
+    }
+
+    private double skipped() {
+        return meterRegistry.get("users.unique.index.checks").tag("result", "skipped").functionCounter().count();
+    }
+}
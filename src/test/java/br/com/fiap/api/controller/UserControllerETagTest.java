@@ -0,0 +1,145 @@
+package br.com.fiap.api.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import br.com.fiap.api.service.UserCache;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+@AutoConfigureMockMvc
+// Mesma configuração do HealthcheckTest, para reaproveitar o contexto
+@AutoConfigureObservability(tracing = false)
+class UserControllerETagTest {
+
+    private static final String BASIC = "Basic " + Base64.getEncoder().encodeToString("user:1234".getBytes());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    private User user;
+
+    @BeforeEach
+    void insertUser() {
+        User created = new User();
+        created.setClientName("ETag");
+        created.setUsername("etag-" + System.nanoTime());
+        created.setPassword("hash");
+        created.setBetMaxValue(10.0);
+        user = userRepository.save(created);
+    }
+
+    @Test
+    void userETagFollowsTheRowVersion() throws Exception {
+        String path = "/api/v1/users/" + user.getId_user();
+        String etag = "\"" + user.getId_user() + "-" + user.getVersion() + "\"";
+
+        mockMvc.perform(get(path).header("Authorization", BASIC))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", containsString("no-cache")));
+        mockMvc.perform(get(path).header("Authorization", BASIC).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(patch(path).header("Authorization", BASIC)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"betMaxValue\": 20}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.betMaxValue").value(20.0))
+                .andExpect(header().string("ETag", "\"" + user.getId_user() + "-" + (user.getVersion() + 1) + "\""));
+        mockMvc.perform(get(path).header("Authorization", BASIC).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + user.getId_user() + "-" + (user.getVersion() + 1) + "\""));
+    }
+
+    @Test
+    void notModifiedUserIsNeitherLoadedNorCached() throws Exception {
+        String path = "/api/v1/users/" + user.getId_user();
+        String etag = "\"" + user.getId_user() + "-" + user.getVersion() + "\"";
+        userCache.invalidate(user.getId_user());
+
+        // Lista com outros valores e comparação fraca (W/) também valem
+        mockMvc.perform(get(path).header("Authorization", BASIC).header("If-None-Match", "\"other\", W/" + etag))
+                .andExpect(status().isNotModified());
+
+        // A busca completa passaria pelo cache e deixaria o usuário nele
+        assertNull(userCache.peekVersion(user.getId_user()));
+    }
+
+    @Test
+    void collectionETagChangesOnlyWhenUsersChange() throws Exception {
+        String page = "/api/v1/users?limit=5";
+        String etag = mockMvc.perform(get(page).header("Authorization", BASIC).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String ndjson = mockMvc.perform(get(page).header("Authorization", BASIC).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, ndjson);
+
+        mockMvc.perform(get(page).header("Authorization", BASIC).accept(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/api/v1/users/" + user.getId_user()).header("Authorization", BASIC)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clientName\": \"ETag changed\"}")
+                        .header("Prefer", "return=minimal"))
+                .andExpect(status().isNoContent())
+                .andExpect(content().string(""));
+
+        String changed = mockMvc.perform(get(page).header("Authorization", BASIC).accept(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void deletingAnUnknownUserIsNotFoundAndKeepsTheCollectionETag() throws Exception {
+        String page = "/api/v1/users?limit=5";
+        String etag = mockMvc.perform(get(page).header("Authorization", BASIC).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(delete("/api/v1/users/" + Long.MAX_VALUE).header("Authorization", BASIC))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get(page).header("Authorization", BASIC).accept(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/api/v1/users/" + user.getId_user()).header("Authorization", BASIC))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get(page).header("Authorization", BASIC).accept(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcLogSinkTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.update("DELETE FROM logs");
+        jdbcTemplate.update("DELETE FROM logs_archive");
+    }
+
+    @Test
+    void insertsBatchWithMultiRowStatements() {
+        JdbcLogSink sink = new JdbcLogSink(jdbcTemplate, 100);
+        List<LogEntry> batch = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            batch.add(new LogEntry("INFO", "Creating user: user" + i));
+        }
+        batch.add(new LogEntry("INFO", "x".repeat(5000)));
+
+        sink.append(batch);
+
+        assertEquals(251, count("logs"));
+        assertEquals(1000, jdbcTemplate.queryForObject(
+                "SELECT MAX(LENGTH(message)) FROM logs", Integer.class));
+    }
+
+    @Test
+    void retentionDeletesOnlyExpiredRowsInChunks() {
+        insertAged(25, 40);
+        insertAged(5, 1);
+
+        LogRetentionJob job = new LogRetentionJob(jdbcTemplate, new TransactionTemplate(transactionManager), 30, 7, false);
+        int removed = job.purgeOlderThan(LocalDateTime.now().minusDays(30));
+
+        assertEquals(25, removed);
+        assertEquals(5, count("logs"));
+        assertEquals(0, count("logs_archive"));
+    }
+
+    @Test
+    void retentionCanArchiveBeforeDeleting() {
+        insertAged(12, 40);
+
+        LogRetentionJob job = new LogRetentionJob(jdbcTemplate, new TransactionTemplate(transactionManager), 30, 5, true);
+        job.purgeOlderThan(LocalDateTime.now().minusDays(30));
+
+        assertEquals(0, count("logs"));
+        assertEquals(12, count("logs_archive"));
+    }
+
+    private void insertAged(int count, int daysAgo) {
+        List<LogEntry> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LogEntry entry = new LogEntry("INFO", "Updating user: user" + i);
+            entry.timestamp = LocalDateTime.now().minusDays(daysAgo);
+            batch.add(entry);
+        }
+        new JdbcLogSink(jdbcTemplate, 100).append(batch);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+class LogAggregatesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 12, 18, 30, 15);
+
+    @Test
+    void templatesReplaceVariablePart() {
+        assertEquals("Creating user: *", LogAggregates.templateOf("Creating user: joaos"));
+        assertEquals("Updating user: *", LogAggregates.templateOf("Updating user: admin: x"));
+        assertEquals("Batch * done", LogAggregates.templateOf("Batch 42 done"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countsLevelsBucketsAndTopTemplates() {
+        LogAggregates aggregates = new LogAggregates();
+        for (int i = 0; i < 30; i++) {
+            aggregates.record(entry("INFO", "Creating user: u" + i, NOW.minusMinutes(i % 3)));
+        }
+        for (int i = 0; i < 5; i++) {
+            aggregates.record(entry("WARN", "Updating user: u" + i, NOW.minusHours(2)));
+        }
+        // Fora da janela de 24h: conta no total, mas não nos histogramas
+        aggregates.record(entry("INFO", "Creating user: old", NOW.minusDays(3)));
+
+        Map<String, Object> snapshot = aggregates.snapshot(NOW, 1);
+
+        assertEquals(36L, snapshot.get("total"));
+        assertEquals(Map.of("INFO", 31L, "WARN", 5L), snapshot.get("levels"));
+
+        List<Map<String, Object>> perMinute = (List<Map<String, Object>>) snapshot.get("perMinute");
+        assertEquals(LogAggregates.MINUTE_BUCKETS, perMinute.size());
+        assertEquals(10L, perMinute.get(perMinute.size() - 1).get("count"));
+        assertEquals(10L, perMinute.get(perMinute.size() - 3).get("count"));
+
+        List<Map<String, Object>> perHour = (List<Map<String, Object>>) snapshot.get("perHour");
+        assertEquals(30L, perHour.get(perHour.size() - 1).get("count"));
+        assertEquals(5L, perHour.get(perHour.size() - 3).get("count"));
+        assertEquals(35L, perHour.stream().mapToLong(b -> (Long) b.get("count")).sum());
+
+        List<Map<String, Object>> top = (List<Map<String, Object>>) snapshot.get("topTemplates");
+        assertEquals(List.of(Map.of("template", "Creating user: *", "count", 31L)), top);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void oldBucketIsReplacedWhenRingWrapsAround() {
+        LogAggregates aggregates = new LogAggregates();
+        aggregates.record(entry("INFO", "a", NOW.minusMinutes(60)));
+        aggregates.record(entry("INFO", "b", NOW));
+
+        List<Map<String, Object>> perMinute = (List<Map<String, Object>>) aggregates.snapshot(NOW, 0).get("perMinute");
+        assertEquals(1L, perMinute.stream().mapToLong(b -> (Long) b.get("count")).sum());
+    }
+
+    private static LogEntry entry(String level, String message, LocalDateTime timestamp) {
+        LogEntry entry = new LogEntry(level, message);
+        entry.timestamp = timestamp;
+        return entry;
+    }
+}
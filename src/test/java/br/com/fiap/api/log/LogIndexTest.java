@@ -0,0 +1,153 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+class LogIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private LogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LogIndex();
+        // 1000 entradas, uma por minuto; uma em cada dez é WARN
+        for (int i = 0; i < 1000; i++) {
+            LogEntry entry = new LogEntry(i % 10 == 0 ? "WARN" : "INFO", "Creating user: user" + i);
+            entry.timestamp = BASE.plusMinutes(i);
+            index.add(entry);
+        }
+    }
+
+    @Test
+    void paginatesWithCursorUntilExhausted() {
+        int seen = 0;
+        Long cursor = null;
+        do {
+            LogPage page = index.query(null, null, null, null, cursor, 300);
+            for (LogEntry entry : page.items) {
+                assertEquals(seen++, entry.id);
+            }
+            cursor = page.nextCursor;
+        } while (cursor != null);
+        assertEquals(1000, seen);
+    }
+
+    @Test
+    void defaultAndMaximumLimitsApply() {
+        assertEquals(LogIndex.DEFAULT_LIMIT, index.query(null, null, null, null, null, null).items.size());
+        assertEquals(LogIndex.MAX_LIMIT, index.query(null, null, null, null, null, 50_000).items.size());
+    }
+
+    @Test
+    void filtersByTimeRangeWithInclusiveFromAndExclusiveTo() {
+        LogPage page = index.query(null, BASE.plusMinutes(100), BASE.plusMinutes(110), null, null, 1000);
+        assertEquals(10, page.items.size());
+        assertEquals(100, page.items.get(0).id);
+        assertEquals(109, page.items.get(9).id);
+        assertNull(page.nextCursor);
+    }
+
+    @Test
+    void filtersByLevelUsingPostingList() {
+        LogPage page = index.query("warn", BASE.plusMinutes(500), null, null, null, 1000);
+        assertEquals(50, page.items.size());
+        assertTrue(page.items.stream().allMatch(e -> e.level.equals("WARN")));
+        assertEquals(500, page.items.get(0).id);
+    }
+
+    @Test
+    void combinesLevelContainsAndCursor() {
+        LogPage page = index.query("WARN", null, null, "user99", 900L, 10);
+        assertEquals(1, page.items.size());
+        assertEquals(990, page.items.get(0).id);
+    }
+
+    @Test
+    void containsStopsAtTheScanCapAndResumesFromTheCursor() {
+        LogIndex capped = new LogIndex(100_000, LogIndex.MAX_LIMIT);
+        for (int i = 0; i < 5000; i++) {
+            capped.add(new LogEntry(i % 2 == 0 ? "WARN" : "INFO", i == 4321 ? "needle" : "hay " + i));
+        }
+
+        List<Long> found = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Long cursor = null;
+        do {
+            LogPage page = capped.query(null, null, null, "needle", cursor, 10);
+            page.items.forEach(entry -> found.add(entry.id));
+            pageSizes.add(page.items.size());
+            cursor = page.nextCursor;
+        } while (cursor != null);
+
+        assertEquals(List.of(4321L), found);
+        // 1000 entradas examinadas por página
+        assertEquals(List.of(0, 0, 0, 0, 1), pageSizes);
+
+        LogPage byLevel = capped.query("INFO", null, null, "needle", null, 10);
+        assertTrue(byLevel.items.isEmpty());
+        assertEquals(1999L, byLevel.nextCursor);
+        assertEquals(4321L, capped.query("INFO", null, null, "needle", 3999L, 10).items.get(0).id);
+    }
+
+    @Test
+    void clockGoingBackwardsKeepsRangeSearchConsistent() {
+        LogEntry late = new LogEntry("INFO", "Updating user: late");
+        late.timestamp = BASE;
+        index.add(late);
+
+        LogPage page = index.query(null, BASE.plusMinutes(999), null, null, null, 10);
+        assertEquals(2, page.items.size());
+        assertEquals(1000, page.items.get(1).id);
+    }
+
+    @Test
+    void compactsToMostRecentEntries() {
+        LogIndex small = new LogIndex(100);
+        for (int i = 0; i < 250; i++) {
+            small.add(new LogEntry("INFO", "Creating user: user" + i));
+        }
+
+        assertTrue(small.size() >= 100 && small.size() < 200);
+        assertEquals(249L, small.query(null, null, null, null, 248L, 10).items.get(0).id);
+        assertEquals(small.firstId(), small.query(null, null, null, null, null, 1).items.get(0).id);
+    }
+
+    @Test
+    void prependsOlderEntriesLoadedAfterNewOnes() {
+        LogIndex live = new LogIndex(100);
+        live.advanceNextId(150);
+        for (int i = 0; i < 10; i++) {
+            live.add(new LogEntry(i % 2 == 0 ? "WARN" : "INFO", "Live: " + i));
+        }
+        List<LogEntry> older = new ArrayList<>();
+        for (long id = 0; id < 160; id++) {
+            // Ids a partir de 150 já estão em memória (lidos do segmento ativo) e são ignorados
+            LogEntry entry = new LogEntry(id % 2 == 0 ? "WARN" : "INFO", "Disk: " + id);
+            entry.id = id;
+            entry.timestamp = BASE.plusMinutes(id);
+            older.add(entry);
+        }
+
+        live.prepend(older);
+
+        assertEquals(100, live.size());
+        assertEquals(60L, live.firstId());
+        assertEquals(61L, live.query(null, null, null, null, 60L, 1).items.get(0).id);
+        assertEquals(150L, live.query(null, null, null, null, 149L, 1).items.get(0).id);
+        assertEquals(50, live.query("WARN", null, null, null, null, 1000).items.size());
+        live.add(new LogEntry("INFO", "After"));
+        assertEquals(160L, live.query(null, null, null, "After", null, 1).items.get(0).id);
+    }
+}
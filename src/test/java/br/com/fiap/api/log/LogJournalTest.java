@@ -0,0 +1,95 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.fiap.api.log.LogJournal.FsyncPolicy;
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+class LogJournalTest {
+
+    // Use -Djournal.test.entries=5000000 para rodar com milhões de entradas
+    private static final int ENTRIES = Integer.getInteger("journal.test.entries", 200_000);
+    private static final int BLOCKS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendLatencyStaysFlatAsJournalGrows() throws Exception {
+        Path file = dir.resolve("logs-summary.jsonl");
+        int blockSize = ENTRIES / BLOCKS;
+        long[] blockNanos = new long[BLOCKS];
+
+        try (LogJournal journal = new LogJournal(file, objectMapper, FsyncPolicy.NEVER, 1000)) {
+            for (int b = 0; b < BLOCKS; b++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < blockSize; i++) {
+                    journal.append(new LogEntry("INFO", "Creating user: user" + (b * blockSize + i)));
+                }
+                blockNanos[b] = System.nanoTime() - start;
+            }
+        }
+
+        // O primeiro bloco inclui aquecimento do JIT; compara o melhor dos primeiros com o último
+        long early = Math.min(blockNanos[1], blockNanos[2]);
+        long last = blockNanos[BLOCKS - 1];
+        assertTrue(last < early * 5,
+                "append ficou mais lento com o crescimento do journal: inicial=" + early + "ns, final=" + last + "ns");
+
+        try (var lines = Files.lines(file)) {
+            assertEquals((long) blockSize * BLOCKS, lines.count());
+        }
+    }
+
+    @Test
+    void migratesLegacyJsonArrayOnce() throws Exception {
+        Path legacy = dir.resolve("logs-summary.json");
+        List<LogEntry> old = List.of(new LogEntry("INFO", "Creating user: a"), new LogEntry("INFO", "Creating user: b"));
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(legacy.toFile(), old);
+
+        Path file = dir.resolve("logs-summary.jsonl");
+        try (LogJournal journal = new LogJournal(file, objectMapper, FsyncPolicy.ALWAYS, 1000)) {
+            journal.migrateFrom(legacy);
+            journal.append(new LogEntry("INFO", "Creating user: c"));
+
+            List<LogEntry> all = journal.readAll();
+            assertEquals(3, all.size());
+            assertEquals("Creating user: a", all.get(0).message);
+            assertEquals("Creating user: c", all.get(2).message);
+            assertEquals(old.get(0).timestamp, all.get(0).timestamp);
+        }
+
+        assertFalse(Files.exists(legacy));
+        assertTrue(Files.exists(dir.resolve("logs-summary.json.migrated")));
+    }
+
+    @Test
+    void ignoresTruncatedTrailingLine() throws Exception {
+        Path file = dir.resolve("logs-summary.jsonl");
+        try (LogJournal journal = new LogJournal(file, objectMapper, FsyncPolicy.NEVER, 1000)) {
+            journal.append(new LogEntry("INFO", "Creating user: a"));
+        }
+        Files.writeString(file, "{\"level\":\"INFO\",\"mess", java.nio.file.StandardOpenOption.APPEND);
+
+        try (LogJournal journal = new LogJournal(file, objectMapper, FsyncPolicy.NEVER, 1000)) {
+            assertEquals(1, journal.readAll().size());
+            journal.append(new LogEntry("INFO", "Creating user: b"));
+            assertEquals(2, journal.readAll().size());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+import br.com.fiap.api.log.LogTailBroadcaster.SlowConsumerPolicy;
+import br.com.fiap.api.log.LogTailBroadcaster.Subscription;
+
+class LogTailBroadcasterTest {
+
+    @Test
+    void slowConsumerIsSampledWithoutBlockingProducer() throws Exception {
+        LogTailBroadcaster broadcaster = new LogTailBroadcaster(4, SlowConsumerPolicy.SAMPLE);
+        Subscription slow = broadcaster.subscribe();
+        Subscription fast = broadcaster.subscribe();
+
+        for (int i = 0; i < 10; i++) {
+            broadcaster.publish(new LogEntry("INFO", "m" + i));
+            // O consumidor rápido acompanha o produtor
+            assertEquals("m" + i, fast.poll(1, TimeUnit.SECONDS).message);
+        }
+
+        assertEquals(6, slow.takeSkipped());
+        assertEquals("m0", slow.poll(1, TimeUnit.SECONDS).message);
+        assertEquals(0, fast.takeSkipped());
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void slowConsumerIsDisconnectedWhenConfigured() throws Exception {
+        LogTailBroadcaster broadcaster = new LogTailBroadcaster(2, SlowConsumerPolicy.DISCONNECT);
+        Subscription slow = broadcaster.subscribe();
+
+        for (int i = 0; i < 5; i++) {
+            broadcaster.publish(new LogEntry("INFO", "m" + i));
+        }
+
+        assertTrue(slow.isClosed());
+        assertNull(slow.poll(10, TimeUnit.MILLISECONDS));
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(1, broadcaster.getDisconnectedCount());
+    }
+
+    @Test
+    void refusesSubscribersAboveTheLimitUntilOneLeaves() {
+        LogTailBroadcaster broadcaster = new LogTailBroadcaster(4, 2, SlowConsumerPolicy.SAMPLE);
+        Subscription first = broadcaster.subscribe();
+        broadcaster.subscribe();
+
+        assertNull(broadcaster.subscribe());
+        assertEquals(1, broadcaster.getRejectedCount());
+
+        first.close();
+        first.close();
+        assertNotNull(broadcaster.subscribe());
+        assertNull(broadcaster.subscribe());
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+// Um assinante só, para exercitar o limite
+@SpringBootTest(properties = { "logs.dir=target/test-logs", "logs.stream.max-subscribers=1" })
+@AutoConfigureMockMvc
+class LogTailServiceTest {
+
+    private static final String BASIC = "Basic " + Base64.getEncoder().encodeToString("user:1234".getBytes());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LogSummaryService logSummaryService;
+
+    @Test
+    void replaysFromTheCursorRefusesExtraSubscribersAndReleasesOnTimeout() throws Exception {
+        String marker = "tail-" + System.nanoTime();
+        logSummaryService.addLog("INFO", marker + " before");
+        long cursor = logSummaryService.query(null, null, null, marker + " before", null, 1).items.get(0).id;
+        logSummaryService.addLog("INFO", marker + " first");
+        logSummaryService.addLog("WARN", marker + " second");
+
+        MvcResult stream = mockMvc.perform(get("/api/logs/stream").header(HttpHeaders.AUTHORIZATION, BASIC)
+                        .header("Last-Event-ID", cursor).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Histórico depois do cursor, sem a entrada do próprio cursor
+        awaitTrue(() -> content(stream).contains(marker + " second"));
+        assertTrue(content(stream).contains(marker + " first"));
+        assertFalse(content(stream).contains(marker + " before"));
+        // Entradas novas chegam pela assinatura
+        logSummaryService.addLog("INFO", marker + " live");
+        awaitTrue(() -> content(stream).contains(marker + " live"));
+
+        mockMvc.perform(get("/api/logs/stream").header(HttpHeaders.AUTHORIZATION, BASIC)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.status").value(503));
+        assertEquals(1, logSummaryService.getSubscriberCount());
+
+        // O container avisa o timeout: a assinatura é encerrada e a vaga, liberada
+        MockAsyncContext async = (MockAsyncContext) stream.getRequest().getAsyncContext();
+        for (AsyncListener listener : async.getListeners()) {
+            listener.onTimeout(new AsyncEvent(async));
+        }
+        awaitTrue(() -> logSummaryService.getSubscriberCount() == 0);
+
+        MvcResult next = mockMvc.perform(get("/api/logs/stream").header(HttpHeaders.AUTHORIZATION, BASIC)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1, logSummaryService.getSubscriberCount());
+        MockAsyncContext nextAsync = (MockAsyncContext) next.getRequest().getAsyncContext();
+        for (AsyncListener listener : nextAsync.getListeners()) {
+            listener.onTimeout(new AsyncEvent(nextAsync));
+        }
+        awaitTrue(() -> logSummaryService.getSubscriberCount() == 0);
+    }
+
+    private static String content(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
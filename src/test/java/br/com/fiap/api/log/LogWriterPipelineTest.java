@@ -0,0 +1,194 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+import br.com.fiap.api.log.LogWriterPipeline.OverflowPolicy;
+
+class LogWriterPipelineTest {
+
+    /** Sink em memória que pode ser travado para simular disco lento. */
+    static class RecordingSink implements LogSink {
+        final List<LogEntry> written = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch gate;
+
+        RecordingSink(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void append(List<LogEntry> batch) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batchSizes.add(batch.size());
+            written.addAll(batch);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWithBlockPolicy() throws Exception {
+        RecordingSink sink = new RecordingSink(new CountDownLatch(0));
+        LogWriterPipeline pipeline = new LogWriterPipeline(sink, 64, 32, OverflowPolicy.BLOCK);
+
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    pipeline.offer(new LogEntry("INFO", "Creating user: " + id + "-" + i));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        pipeline.close();
+
+        assertEquals(threads * perThread, sink.written.size());
+        assertEquals(0, pipeline.getDroppedCount());
+        assertEquals(0, pipeline.getQueueDepth());
+        assertTrue(sink.batchSizes.stream().allMatch(size -> size <= 32));
+    }
+
+    @Test
+    void dropNewCountsDiscardedEntriesWhenFull() {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(gate);
+        LogWriterPipeline pipeline = new LogWriterPipeline(sink, 10, 100, OverflowPolicy.DROP_NEW);
+
+        int accepted = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (pipeline.offer(new LogEntry("INFO", "m" + i))) {
+                accepted++;
+            }
+        }
+        gate.countDown();
+        pipeline.close();
+
+        assertEquals(1_000 - accepted, pipeline.getDroppedCount());
+        assertEquals(accepted, sink.written.size());
+        assertTrue(pipeline.getDroppedCount() > 0);
+    }
+
+    @Test
+    void dropOldestKeepsMostRecentEntries() {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(gate);
+        LogWriterPipeline pipeline = new LogWriterPipeline(sink, 10, 100, OverflowPolicy.DROP_OLDEST);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(pipeline.offer(new LogEntry("INFO", "m" + i)));
+        }
+        gate.countDown();
+        pipeline.close();
+
+        assertEquals("m999", sink.written.get(sink.written.size() - 1).message);
+        assertEquals(1_000, sink.written.size() + pipeline.getDroppedCount());
+    }
+
+    @Test
+    void rejectsEntriesAfterClose() {
+        RecordingSink sink = new RecordingSink(new CountDownLatch(0));
+        LogWriterPipeline pipeline = new LogWriterPipeline(sink, 10, 10, OverflowPolicy.BLOCK);
+        pipeline.close();
+
+        assertFalse(pipeline.offer(new LogEntry("INFO", "late")));
+        assertEquals(1, pipeline.getDroppedCount());
+    }
+
+    @Test
+    void everyEntryOfferedDuringCloseIsWrittenOrCountedAsDropped() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            RecordingSink sink = new RecordingSink(new CountDownLatch(0));
+            LogWriterPipeline pipeline = new LogWriterPipeline(sink, 1_000, 16, OverflowPolicy.DROP_NEW);
+            int threads = 4;
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicInteger offered = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(threads);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 2_000; i++) {
+                        offered.incrementAndGet();
+                        if (pipeline.offer(new LogEntry("INFO", "m" + i))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            started.await();
+            pipeline.close();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+            assertEquals(accepted.get(), sink.written.size());
+            assertEquals(offered.get(), sink.written.size() + pipeline.getDroppedCount());
+            assertEquals(0, pipeline.getQueueDepth());
+        }
+    }
+
+    @Test
+    void reportsUnhealthyWhileBatchesFail() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        LogSink sink = new LogSink() {
+            @Override
+            public void append(List<LogEntry> batch) throws IOException {
+                if (failing.get()) {
+                    throw new IOException("disk full");
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        LogWriterPipeline pipeline = new LogWriterPipeline(sink, 10, 10, OverflowPolicy.BLOCK);
+
+        pipeline.offer(new LogEntry("INFO", "lost"));
+        awaitBatches(pipeline, 1);
+        assertFalse(pipeline.isHealthy());
+        assertEquals(1, pipeline.getFailedCount());
+
+        failing.set(false);
+        pipeline.offer(new LogEntry("INFO", "saved"));
+        awaitBatches(pipeline, 2);
+        assertTrue(pipeline.isHealthy());
+        assertTrue(pipeline.getWriteNanos() > 0);
+
+        pipeline.close();
+        assertFalse(pipeline.isHealthy());
+    }
+
+    private static void awaitBatches(LogWriterPipeline pipeline, long batches) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipeline.getBatchCount() < batches && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(batches, pipeline.getBatchCount());
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.fiap.api.log;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.fiap.api.log.LogJournal.FsyncPolicy;
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+import br.com.fiap.api.log.LogWriterPipeline.OverflowPolicy;
+
+/**
+ * Processo gravador usado por {@link MultiProcessLogStorageTest}: reserva um diretório
+ * de instância, espera o sinal de largada e grava as entradas pelo mesmo caminho
+ * usado pela aplicação (pipeline + segmentos).
+ */
+public class LogWriterProcess {
+
+    public static void main(String[] args) throws Exception {
+        Path root = Path.of(args[0]);
+        int count = Integer.parseInt(args[1]);
+        Path startSignal = root.resolve("go");
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        try (LogInstanceDirectory instance = LogInstanceDirectory.claim(root, "")) {
+            SegmentedLogStore store = new SegmentedLogStore(instance.getDir(), objectMapper,
+                    FsyncPolicy.NEVER, 1000, 64 * 1024, Duration.ofDays(1));
+            store.open();
+
+            while (!Files.exists(startSignal)) {
+                Thread.sleep(5);
+            }
+
+            LogWriterPipeline pipeline = new LogWriterPipeline(store, 1024, 128, OverflowPolicy.BLOCK);
+            for (int i = 0; i < count; i++) {
+                LogEntry entry = new LogEntry("INFO", "Creating user: " + instance.getId() + "-" + i);
+                entry.id = (long) i;
+                pipeline.offer(entry);
+            }
+            pipeline.close();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.fiap.api.log.LogJournal.FsyncPolicy;
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+import br.com.fiap.api.log.LogWriterPipeline.OverflowPolicy;
+
+class MultiProcessLogStorageTest {
+
+    private static final int PROCESSES = 4;
+    private static final int ENTRIES_PER_PROCESS = 5_000;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void concurrentWriterProcessesLoseNoEntries() throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<Process> processes = new ArrayList<>();
+        for (int p = 0; p < PROCESSES; p++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    LogWriterProcess.class.getName(), root.toString(), String.valueOf(ENTRIES_PER_PROCESS))
+                    .redirectErrorStream(true)
+                    .redirectOutput(root.resolve("writer-" + p + ".out").toFile())
+                    .start());
+        }
+        // Espera todos reservarem o diretório antes de liberar a gravação simultânea
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (countInstances() < PROCESSES && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Files.createFile(root.resolve("go"));
+
+        for (Process process : processes) {
+            assertTrue(process.waitFor(120, TimeUnit.SECONDS), "processo gravador não terminou");
+            assertEquals(0, process.exitValue());
+        }
+        assertEquals(PROCESSES, countInstances());
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        MergedLogReader reader = new MergedLogReader(root.resolve(LogInstanceDirectory.INSTANCES_DIR), objectMapper);
+
+        Set<String> messages = new HashSet<>();
+        Set<String> instances = new HashSet<>();
+        LogEntry previous = null;
+        String cursor = null;
+        do {
+            MergedLogPage page = reader.query(null, null, null, null, cursor, LogIndex.MAX_LIMIT);
+            for (LogEntry entry : page.items) {
+                assertTrue(messages.add(entry.message), "entrada repetida: " + entry.message);
+                instances.add(entry.instance);
+                if (previous != null) {
+                    assertFalse(entry.timestamp.isBefore(previous.timestamp), "fora de ordem: " + entry.message);
+                }
+                previous = entry;
+            }
+            cursor = page.nextCursor;
+        } while (cursor != null);
+
+        assertEquals(PROCESSES * ENTRIES_PER_PROCESS, messages.size());
+        assertEquals(PROCESSES, instances.size());
+    }
+
+    @Test
+    void mergedPagesKeepEveryEntryWithConcurrentWritersPerInstance() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        int threads = 8;
+        int perThread = 300;
+        LocalDateTime shared = LocalDateTime.now().minusMinutes(1);
+        List<LogInstanceDirectory> claimed = new ArrayList<>();
+        List<Thread> writers = new ArrayList<>();
+        List<LogWriterPipeline> pipelines = new ArrayList<>();
+        for (String id : List.of("api-a", "api-b")) {
+            LogInstanceDirectory instance = LogInstanceDirectory.claim(root, id);
+            claimed.add(instance);
+            SegmentedLogStore store = new SegmentedLogStore(instance.getDir(), objectMapper,
+                    FsyncPolicy.NEVER, 1000, 64 * 1024, Duration.ofDays(1));
+            store.open();
+            LogWriterPipeline pipeline = new LogWriterPipeline(store, 1024, 64, OverflowPolicy.BLOCK);
+            pipelines.add(pipeline);
+            // Mais entradas com o mesmo timestamp do que cabem numa página
+            for (int i = 0; i < 150; i++) {
+                LogEntry entry = new LogEntry("INFO", id + "-same-" + i);
+                entry.timestamp = shared;
+                pipeline.offer(entry);
+            }
+            for (int t = 0; t < threads; t++) {
+                String prefix = id + "-" + t + "-";
+                writers.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        // Timestamp criado antes de entrar na fila, como em addLog: a ordem dos ids não é a do tempo
+                        LogEntry entry = new LogEntry("INFO", prefix + i);
+                        if (i % 7 == 0) Thread.yield();
+                        pipeline.offer(entry);
+                    }
+                }));
+            }
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        pipelines.forEach(LogWriterPipeline::close);
+
+        MergedLogReader reader = new MergedLogReader(root.resolve(LogInstanceDirectory.INSTANCES_DIR), objectMapper);
+        Set<String> messages = new HashSet<>();
+        LogEntry previous = null;
+        String cursor = null;
+        do {
+            MergedLogPage page = reader.query(null, null, null, null, cursor, 37);
+            for (LogEntry entry : page.items) {
+                assertTrue(messages.add(entry.message), "entrada repetida: " + entry.message);
+                if (previous != null) {
+                    int order = entry.timestamp.compareTo(previous.timestamp);
+                    if (order == 0) order = entry.instance.compareTo(previous.instance);
+                    if (order == 0) order = Long.compare(entry.id, previous.id);
+                    assertTrue(order > 0, "fora de ordem: " + entry.message);
+                }
+                previous = entry;
+            }
+            cursor = page.nextCursor;
+        } while (cursor != null);
+
+        assertEquals(2 * (150 + threads * perThread), messages.size());
+        for (LogInstanceDirectory instance : claimed) {
+            instance.close();
+        }
+    }
+
+    @Test
+    void sameInstanceCannotBeClaimedTwice() throws Exception {
+        try (LogInstanceDirectory first = LogInstanceDirectory.claim(root, "api-1");
+                LogInstanceDirectory auto = LogInstanceDirectory.claim(root, "")) {
+            assertThrows(IllegalStateException.class, () -> LogInstanceDirectory.claim(root, "api-1"));
+            assertEquals("instance-0", auto.getId());
+        }
+        try (LogInstanceDirectory again = LogInstanceDirectory.claim(root, "api-1")) {
+            assertEquals("api-1", again.getId());
+        }
+    }
+
+    private long countInstances() throws Exception {
+        Path instances = root.resolve(LogInstanceDirectory.INSTANCES_DIR);
+        if (!Files.isDirectory(instances)) {
+            return 0;
+        }
+        try (var dirs = Files.list(instances)) {
+            return dirs.filter(dir -> Files.exists(dir.resolve(".lock"))).count();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.fiap.api.log.LogJournal.FsyncPolicy;
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+
+class SegmentedLogStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rollsCompressesAndReloadsOnlyRecentSegments() throws Exception {
+        SegmentedLogStore store = newStore();
+        store.open();
+        for (int b = 0; b < 50; b++) {
+            store.append(batch(b * 100, 100));
+        }
+        store.close();
+
+        assertTrue(store.segmentCount() > 5, "segmentos: " + store.segmentCount());
+        assertTrue(count("*.jsonl.gz") >= store.segmentCount() - 1);
+        assertEquals(store.segmentCount() - 1, count("*.idx"));
+
+        SegmentedLogStore reopened = newStore();
+        reopened.open();
+        assertEquals(5000, reopened.nextId());
+
+        List<LogEntry> recent = new ArrayList<>();
+        reopened.loadRecent(500, recent::add);
+        assertTrue(recent.size() >= 500 && recent.size() < 5000, "carregadas: " + recent.size());
+        assertEquals(4999L, recent.get(recent.size() - 1).id);
+
+        List<LogEntry> cold = reopened.scan(null, null, null, null, 1233L, 5000, 10);
+        assertEquals(10, cold.size());
+        assertEquals(1234L, cold.get(0).id);
+        assertEquals(BASE.plusSeconds(1234), cold.get(0).timestamp);
+
+        List<LogEntry> ranged = reopened.scan("warn", BASE.plusSeconds(100), BASE.plusSeconds(200), null, null, 5000, 1000);
+        assertEquals(10, ranged.size());
+        reopened.close();
+    }
+
+    @Test
+    void scanSeeksToTheCursorAndStopsAtTheLimit() throws Exception {
+        SegmentedLogStore store = new SegmentedLogStore(dir.resolve("segments"), objectMapper, FsyncPolicy.NEVER, 1000,
+                256 * 1024, Duration.ofDays(1));
+        store.open();
+        for (int b = 0; b < 50; b++) {
+            store.append(batch(b * 100, 100));
+        }
+        store.close();
+        assertTrue(store.segmentCount() >= 2, "segmentos: " + store.segmentCount());
+
+        SegmentedLogStore reopened = newStore();
+        reopened.open();
+        long before = reopened.getLinesParsed();
+        // Segmento comprimido: começa na marca anterior ao cursor, não na primeira linha
+        List<LogEntry> compressed = reopened.scan(null, null, null, null, 1999L, 5000, 10);
+        assertEquals(2000L, compressed.get(0).id);
+        assertEquals(10, compressed.size());
+        long parsed = reopened.getLinesParsed() - before;
+        assertTrue(parsed <= LogSegment.OFFSET_INTERVAL + 100 + 10, "linhas lidas: " + parsed);
+
+        // Sem cursor, para assim que completa o limite
+        before = reopened.getLinesParsed();
+        assertEquals(10, reopened.scan(null, null, null, null, null, 5000, 10).size());
+        assertEquals(10, reopened.getLinesParsed() - before);
+        reopened.close();
+    }
+
+    @Test
+    void appendWritesCopiesInsteadOfChangingTheEntries() throws Exception {
+        SegmentedLogStore store = newStore();
+        store.open();
+        store.append(batch(0, 2));
+        LogEntry late = new LogEntry("INFO", "Creating user: late");
+        late.id = 1L;
+        late.timestamp = BASE.minusSeconds(1);
+        store.append(List.of(late));
+
+        // A entrada visível aos leitores fica como estava; o disco recebe a cópia corrigida
+        assertEquals(1L, late.id);
+        assertEquals(BASE.minusSeconds(1), late.timestamp);
+        List<LogEntry> all = new ArrayList<>();
+        store.loadRecent(100, all::add);
+        store.close();
+        assertEquals(2L, all.get(2).id);
+        assertEquals(BASE.plusSeconds(1), all.get(2).timestamp);
+    }
+
+    @Test
+    void scanStopsAtMaxScannedWithACursor() throws Exception {
+        SegmentedLogStore store = newStore();
+        store.open();
+        store.append(batch(0, 3000));
+
+        // Nenhuma entrada casa: cada página examina no máximo 1000 e devolve o cursor
+        LogPage page = store.scan(null, null, null, "inexistente", null, 3000, 10, 1000);
+        assertTrue(page.items.isEmpty());
+        assertEquals(999L, page.nextCursor);
+
+        page = store.scan(null, null, null, "inexistente", page.nextCursor, 3000, 10, 1000);
+        assertEquals(1999L, page.nextCursor);
+
+        // Página completa antes do limite: sem cursor do scan
+        page = store.scan(null, null, null, null, null, 3000, 10, 1000);
+        assertEquals(10, page.items.size());
+        assertNull(page.nextCursor);
+        store.close();
+    }
+
+    @Test
+    void rollsByAge() throws Exception {
+        SegmentedLogStore store = new SegmentedLogStore(dir, objectMapper, FsyncPolicy.NEVER, 1000,
+                Long.MAX_VALUE, Duration.ZERO);
+        store.open();
+        store.append(batch(0, 10));
+        Thread.sleep(5);
+        store.append(batch(10, 10));
+        store.close();
+
+        assertEquals(2, store.segmentCount());
+    }
+
+    @Test
+    void adoptsSingleFileJournalAsFirstSegment() throws Exception {
+        Path journalFile = dir.resolve("logs-summary.jsonl");
+        try (LogJournal journal = new LogJournal(journalFile, objectMapper, FsyncPolicy.NEVER, 1000)) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(new LogEntry("INFO", "Creating user: legacy" + i));
+            }
+        }
+
+        SegmentedLogStore store = newStore();
+        store.open();
+        store.adopt(journalFile.toAbsolutePath());
+        store.open();
+        assertEquals(3, store.nextId());
+
+        store.append(List.of(new LogEntry("INFO", "Creating user: new")));
+        List<LogEntry> all = new ArrayList<>();
+        store.loadRecent(100, all::add);
+        store.close();
+
+        assertEquals(4, all.size());
+        assertEquals(3L, all.get(3).id);
+    }
+
+    private SegmentedLogStore newStore() {
+        return new SegmentedLogStore(dir.resolve("segments"), objectMapper, FsyncPolicy.NEVER, 1000,
+                32 * 1024, Duration.ofDays(1));
+    }
+
+    private static List<LogEntry> batch(int firstId, int size) {
+        List<LogEntry> batch = new ArrayList<>();
+        for (int i = firstId; i < firstId + size; i++) {
+            LogEntry entry = new LogEntry(i % 10 == 0 ? "WARN" : "INFO", "Creating user: user" + i);
+            entry.id = (long) i;
+            entry.timestamp = BASE.plusSeconds(i);
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    private long count(String glob) throws Exception {
+        try (Stream<Path> files = Files.list(dir.resolve("segments"))) {
+            var matcher = dir.getFileSystem().getPathMatcher("glob:" + glob);
+            return files.filter(p -> matcher.matches(p.getFileName())).count();
+        }
+    }
+}
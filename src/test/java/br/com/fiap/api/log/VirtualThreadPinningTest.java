@@ -0,0 +1,138 @@
+package br.com.fiap.api.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.fiap.api.log.LogJournal.FsyncPolicy;
+import br.com.fiap.api.log.LogSummaryService.LogEntry;
+import br.com.fiap.api.log.LogWriterPipeline.OverflowPolicy;
+import br.com.fiap.api.service.PasswordHashingService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Procura, via JFR ({@code jdk.VirtualThreadPinned}), virtual threads que ficam presas
+ * à thread portadora ao esperar dentro de um {@code synchronized} do nosso código.
+ * Exercita os caminhos que bloqueiam: gravação de logs (fila cheia, fsync, troca e
+ * compressão de segmentos) e hashing de senhas.
+ */
+class VirtualThreadPinningTest {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "br.com.fiap.api.";
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void logWritesAndHashingDoNotPinVirtualThreads() throws Exception {
+        List<RecordedEvent> pinned = record(() -> {
+            // Segmentos pequenos e fsync a cada lote: força troca de segmento, compressão e I/O síncrono
+            SegmentedLogStore store = new SegmentedLogStore(dir.resolve("segments"), objectMapper,
+                    FsyncPolicy.ALWAYS, 0, 4_096, null);
+            store.open();
+            LogJournal journal = new LogJournal(dir.resolve("journal.jsonl"), objectMapper, FsyncPolicy.ALWAYS, 0);
+            // Fila pequena com BLOCK: produtores esperam (park) pela thread de escrita
+            LogWriterPipeline pipeline = new LogWriterPipeline(store, 8, 4, OverflowPolicy.BLOCK);
+            PasswordHashingService hashing = new PasswordHashingService(new BCryptPasswordEncoder(4), 2, 64, 10_000, 1);
+            String hash = hashing.encode("secret");
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int t = 0; t < 64; t++) {
+                    int id = t;
+                    executor.submit(() -> {
+                        for (int i = 0; i < 50; i++) {
+                            pipeline.offer(new LogEntry("INFO", "Creating user: " + id + "-" + i));
+                            journal.append(new LogEntry("INFO", "Journal entry: " + id + "-" + i));
+                        }
+                        journal.size();
+                        return hashing.matches("secret", hash);
+                    });
+                }
+            }
+            pipeline.close();
+            journal.close();
+            hashing.shutdown();
+            assertTrue(Files.exists(dir.resolve("journal.jsonl")));
+        });
+
+        List<RecordedEvent> ours = pinned.stream().filter(VirtualThreadPinningTest::inApplicationCode).toList();
+        assertTrue(ours.isEmpty(), () -> "virtual threads pinned in application code:\n" + describe(ours));
+    }
+
+    /** Garante que a detecção funciona: esperar dentro de synchronized gera o evento. */
+    @Test
+    void detectsPinningInsideSynchronized() throws Exception {
+        Object monitor = new Object();
+        List<RecordedEvent> pinned = record(() -> {
+            Thread thread = Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            thread.join();
+        });
+
+        assertFalse(pinned.isEmpty(), "JFR should report the pinned virtual thread");
+        assertEquals(1, pinned.stream().filter(VirtualThreadPinningTest::inApplicationCode).count());
+    }
+
+    private interface Workload {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> record(Workload workload) throws Exception {
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream stream = new RecordingStream()) {
+            // Limiar zero: qualquer espera presa conta, não só as longas
+            stream.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+            stream.onEvent(PINNED, events::add);
+            stream.startAsync();
+            workload.run();
+            // stop() entrega os eventos ainda pendentes
+            stream.stop();
+        }
+        return new ArrayList<>(events);
+    }
+
+    private static boolean inApplicationCode(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.isJavaFrame()
+                        && frame.getMethod().getType().getName().startsWith(APP_PACKAGE));
+    }
+
+    private static String describe(List<RecordedEvent> events) {
+        return events.stream()
+                .map(event -> event.getStackTrace().getFrames().stream()
+                        .limit(12)
+                        .map(RecordedFrame::getMethod)
+                        .map(m -> "  at " + m.getType().getName() + "." + m.getName())
+                        .collect(Collectors.joining("\n")))
+                .collect(Collectors.joining("\n---\n"));
+    }
+}
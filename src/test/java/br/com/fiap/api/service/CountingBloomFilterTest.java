@@ -0,0 +1,63 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedValueAndKeepsTheFalsePositiveRateNearTheTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user-" + i + "@mail.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user-" + i + "@mail.com"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i + "@mail.com")) falsePositives++;
+        }
+        // Alvo de 1%, com folga para a variação
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void removedValuesStopMatchingWithoutAffectingTheOthers() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.001);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("user-" + i);
+        }
+        for (int i = 0; i < 1_000; i += 2) {
+            filter.remove("user-" + i);
+        }
+
+        int stillMatching = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (i % 2 == 1) {
+                assertTrue(filter.mightContain("user-" + i));
+            } else if (filter.mightContain("user-" + i)) {
+                stillMatching++;
+            }
+        }
+        assertTrue(stillMatching < 10, "removed but matching: " + stillMatching);
+    }
+
+    @Test
+    void saturatedCountersAreNeverDecremented() {
+        CountingBloomFilter filter = new CountingBloomFilter(10, 0.01);
+        // Mais inclusões que o contador de 4 bits comporta
+        for (int i = 0; i < 20; i++) {
+            filter.add("ana");
+        }
+        for (int i = 0; i < 20; i++) {
+            filter.remove("ana");
+        }
+        // Travado no máximo: continua "talvez", nunca um falso negativo
+        assertTrue(filter.mightContain("ana"));
+        assertFalse(new CountingBloomFilter(10, 0.01).mightContain("ana"));
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.fiap.api.exception.HashingUnavailableException;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /** Encoder que segura o primeiro hash até o teste liberar. */
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+    };
+
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void hashesOnTheDedicatedPool() {
+        release.countDown();
+        service = new PasswordHashingService(blockingEncoder, 2, 4, 5000, 1);
+
+        assertEquals("hash:secret", service.encode("secret"));
+        assertTrue(service.matches("secret", "hash:secret"));
+        assertEquals(2L, service.getStats().get("completed"));
+    }
+
+    @Test
+    void rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        service = new PasswordHashingService(blockingEncoder, 1, 1, 5000, 3);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("b"));
+        while ((int) service.getStats().get("queued") == 0) {
+            Thread.sleep(5);
+        }
+
+        long before = System.nanoTime();
+        HashingUnavailableException e = assertThrows(HashingUnavailableException.class, () -> service.encode("c"));
+        assertTrue(System.nanoTime() - before < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1L, service.getStats().get("rejected"));
+
+        release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void givesUpAfterTheMaximumWait() {
+        service = new PasswordHashingService(blockingEncoder, 1, 4, 100, 1);
+
+        assertThrows(HashingUnavailableException.class, () -> service.encode("slow"));
+        assertEquals(1L, service.getStats().get("timedOut"));
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsABurstOfCapacityAndThenOneCallPerRefill() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, SECOND, 100, 16);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ana", 0));
+        }
+        assertEquals(SECOND, limiter.tryAcquire("ana", 0));
+        assertEquals(SECOND / 2, limiter.tryAcquire("ana", SECOND / 2));
+        assertEquals(0, limiter.tryAcquire("ana", SECOND));
+        assertTrue(limiter.tryAcquire("ana", SECOND) > 0);
+        // Outras chaves têm o próprio bucket
+        assertEquals(0, limiter.tryAcquire("bia", SECOND));
+
+        assertEquals(5, limiter.getAllowedCount());
+        assertEquals(3, limiter.getRejectedCount());
+    }
+
+    @Test
+    void idleTimeRefillsUpToTheCapacityOnly() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, SECOND, 100, 16);
+        limiter.tryAcquire("ana", 0);
+        limiter.tryAcquire("ana", 0);
+
+        long later = 60 * SECOND;
+        assertEquals(0, limiter.tryAcquire("ana", later));
+        assertEquals(0, limiter.tryAcquire("ana", later));
+        assertTrue(limiter.tryAcquire("ana", later) > 0);
+    }
+
+    @Test
+    void evictsOnlyFullBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, SECOND, 100, 16);
+        limiter.tryAcquire("idle", 0);
+        limiter.tryAcquire("busy", 5 * SECOND);
+        limiter.tryAcquire("busy", 5 * SECOND);
+
+        limiter.evictIdle(5 * SECOND);
+
+        assertEquals(1, limiter.getKeys());
+        // O bucket que ficou continua sem tokens
+        assertTrue(limiter.tryAcquire("busy", 5 * SECOND) > 0);
+    }
+
+    @Test
+    void keysAboveTheLimitShareHashedBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, SECOND, 2, 1);
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("b", 0);
+
+        // Tabela cheia e sem buckets ociosos: as chaves novas vão para o único bucket extra
+        assertEquals(0, limiter.tryAcquire("c", 0));
+        assertTrue(limiter.tryAcquire("d", 0) > 0);
+        assertEquals(2, limiter.getKeys());
+        assertEquals(2, limiter.getOverflowedCount());
+
+        // A requisição não varre a tabela: só depois da varredura agendada há espaço para chaves próprias
+        assertTrue(limiter.tryAcquire("d", 2 * SECOND) >= 0);
+        assertEquals(2, limiter.getKeys());
+        limiter.evictIdle(2 * SECOND);
+        assertEquals(0, limiter.tryAcquire("d", 2 * SECOND));
+        assertEquals(1, limiter.getKeys());
+    }
+
+    @Test
+    void neverAllowsMoreThanTheBucketHoldsUnderContention() throws Exception {
+        int threads = 16;
+        int attempts = 5_000;
+        int capacity = 100;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(capacity, SECOND, 1_000, 16);
+        LongAdder allowedHot = new LongAdder();
+        LongAdder allowedOwn = new LongAdder();
+
+        for (long now : new long[] { 0, 10 * SECOND }) {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean running = new AtomicBoolean(true);
+            // Varredura concorrente: nenhum bucket em uso pode ser removido
+            Thread evictor = Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    limiter.evictIdle(now);
+                }
+            });
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String own = "user-" + t;
+                workers.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < attempts; i++) {
+                        // Todos disputam a mesma chave; cada thread também tem a sua
+                        if (limiter.tryAcquire("hot", now) == 0) allowedHot.increment();
+                        if (limiter.tryAcquire(own, now) == 0) allowedOwn.increment();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            running.set(false);
+            evictor.join();
+        }
+
+        // Rajada inicial + 10 tokens repostos em 10 s, exatos
+        assertEquals(capacity + 10, allowedHot.sum());
+        assertEquals(threads * (capacity + 10L), allowedOwn.sum());
+        assertEquals(allowedHot.sum() + allowedOwn.sum(), limiter.getAllowedCount());
+        assertEquals(2L * threads * attempts * 2 - limiter.getAllowedCount(), limiter.getRejectedCount());
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.fiap.api.dto.UserBatchResult;
+import br.com.fiap.api.dto.UserBatchResult.Row;
+import br.com.fiap.api.dto.UserBatchResult.Status;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+
+@SpringBootTest(properties = { "logs.dir=target/test-logs", "users.batch.size=2" })
+class UserBatchImportServiceTest {
+
+    @Autowired
+    private UserBatchImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void reportsOneResultPerRowAcrossChunks() throws Exception {
+        String prefix = "batch-" + System.nanoTime() + "-";
+        String body = "["
+                + user("Ana", prefix + "ana", "secret1") + ","
+                + user("Bruno", prefix + "bruno", "12") + ","
+                + user("Carla", prefix + "carla", "secret3") + ","
+                + user("Carla 2", prefix + "carla", "secret4") + ","
+                + user("Admin", "admin", "secret5") + ","
+                + "{\"betMaxValue\": 10}" + ","
+                + user("Davi", prefix + "davi", "secret6")
+                + "]";
+
+        UserBatchResult result = run(body);
+
+        List<Status> statuses = result.getResults().stream().map(Row::getStatus).toList();
+        assertEquals(List.of(Status.CREATED, Status.INVALID, Status.CREATED, Status.DUPLICATE,
+                Status.DUPLICATE, Status.INVALID, Status.CREATED), statuses);
+        assertEquals(7, result.getTotal());
+        assertEquals(3, result.getCreated());
+        assertEquals(4, result.getFailed());
+        assertNull(result.getError());
+
+        for (int i = 0; i < result.getResults().size(); i++) {
+            assertEquals(i, result.getResults().get(i).getIndex());
+        }
+        Row ana = result.getResults().get(0);
+        User saved = userRepository.findById(ana.getId()).orElseThrow();
+        assertEquals(prefix + "ana", saved.getUsername());
+        assertTrue(passwordEncoder.matches("secret1", saved.getPassword()));
+        assertNotNull(result.getResults().get(6).getId());
+    }
+
+    @Test
+    void keepsProcessedRowsWhenTheArrayIsTruncated() throws Exception {
+        String prefix = "batch-" + System.nanoTime() + "-";
+        UserBatchResult result = run("[" + user("Eva", prefix + "eva", "secret1") + ", {\"clientName\": ");
+
+        assertEquals(1, result.getCreated());
+        assertNotNull(result.getError());
+        assertTrue(userRepository.findByUsername(prefix + "eva").isPresent());
+    }
+
+    @Test
+    void rejectsABodyThatIsNotAnArray() {
+        assertThrows(IllegalArgumentException.class, () -> run("{\"clientName\": \"x\"}"));
+    }
+
+    private UserBatchResult run(String body) throws Exception {
+        return importService.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String user(String name, String username, String password) {
+        return "{\"clientName\": \"" + name + "\", \"betMaxValue\": 50,"
+                + " \"username\": {\"value\": \"" + username + "\"},"
+                + " \"password\": {\"value\": \"" + password + "\"}}";
+    }
+}
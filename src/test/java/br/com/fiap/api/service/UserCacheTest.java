@@ -0,0 +1,230 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+
+class UserCacheTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void servesRepeatedReadsFromMemoryByIdAndUsername() {
+        stub(user(1L, "ana"));
+        UserCache cache = new UserCache(repository, 10, 60, now::get);
+
+        User first = cache.findById(1L).orElseThrow();
+        User second = cache.findById(1L).orElseThrow();
+        User byName = cache.findByUsername("ana").orElseThrow();
+
+        assertEquals("ana", second.getUsername());
+        assertEquals(1L, byName.getId_user());
+        assertNotSame(first, second);
+        verify(repository, times(1)).findById(1L);
+        verify(repository, times(0)).findByUsername("ana");
+        assertEquals(2L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void changingAReturnedUserDoesNotChangeTheCache() {
+        stub(user(1L, "ana"));
+        UserCache cache = new UserCache(repository, 10, 60, now::get);
+
+        cache.findById(1L).orElseThrow().setClientName("changed");
+
+        assertEquals("Client ana", cache.findById(1L).orElseThrow().getClientName());
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        stub(user(1L, "ana"));
+        UserCache cache = new UserCache(repository, 10, 60, now::get);
+
+        cache.findById(1L);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        cache.findById(1L);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.findByUsername("ana");
+
+        verify(repository, times(1)).findById(1L);
+        verify(repository, times(1)).findByUsername("ana");
+        assertEquals(1L, cache.getStats().get("expirations"));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        stub(user(1L, "ana"));
+        stub(user(2L, "bia"));
+        stub(user(3L, "caio"));
+        UserCache cache = new UserCache(repository, 2, 60, now::get);
+
+        cache.findById(1L);
+        cache.findById(2L);
+        cache.findById(1L);
+        cache.findById(3L);
+
+        cache.findById(1L);
+        cache.findById(2L);
+        verify(repository, times(1)).findById(1L);
+        verify(repository, times(2)).findById(2L);
+        assertEquals(2, cache.getStats().get("size"));
+    }
+
+    @Test
+    void invalidationDropsBothKeys() {
+        stub(user(1L, "ana"));
+        UserCache cache = new UserCache(repository, 10, 60, now::get);
+
+        cache.findById(1L);
+        cache.invalidate(1L);
+        cache.findByUsername("ana");
+        cache.findById(1L);
+
+        verify(repository, times(1)).findByUsername("ana");
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    void withReplicasAnInvalidatedUserIsNotCachedUntilTheReplicasCatchUp() {
+        stub(user(1L, "ana"));
+        UserCache cache = new UserCache(repository, 10, 60, 2000, now::get);
+
+        cache.findById(1L);
+        cache.invalidate(1L);
+        // A carga pode ter vindo de uma réplica atrasada: não fica no cache
+        cache.findById(1L);
+        cache.findById(1L);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(2000));
+        cache.findById(1L);
+        cache.findById(1L);
+
+        verify(repository, times(4)).findById(1L);
+    }
+
+    @Test
+    void invalidationReachesOtherInstances() throws Exception {
+        stub(user(1L, "ana"));
+        int portA = freePort();
+        int portB = freePort();
+        UserCache a = new UserCache(repository, 10, 60, portA, "127.0.0.1", "localhost:" + portB, "secret", "", 0);
+        UserCache b = new UserCache(repository, 10, 60, portB, "127.0.0.1", "localhost:" + portA, "secret", "", 0);
+        try {
+            b.findById(1L);
+            // Com o canal ativo, a senha também pode vir do cache
+            b.findCredentialsByUsername("ana");
+            verify(repository, times(0)).findByUsername("ana");
+            a.invalidate(1L);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((int) b.getStats().get("size") > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, b.getStats().get("size"));
+        } finally {
+            a.close();
+            b.close();
+        }
+    }
+
+    @Test
+    void credentialsBypassTheCacheWithoutTheInvalidationChannel() {
+        stub(user(1L, "ana"));
+        UserCache cache = new UserCache(repository, 10, 60, now::get);
+
+        cache.findByUsername("ana");
+        cache.findCredentialsByUsername("ana");
+        cache.findCredentialsByUsername("ana");
+
+        verify(repository, times(3)).findByUsername("ana");
+        assertEquals(2L, cache.getStats().get("credentialBypasses"));
+    }
+
+    @Test
+    void peersWithoutTheChannelOrSecretFailAtStartup() throws Exception {
+        assertThrows(IllegalStateException.class,
+                () -> new UserCache(repository, 10, 60, 0, "127.0.0.1", "localhost:9000", "", "", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new UserCache(repository, 10, 60, freePort(), "127.0.0.1", "localhost:9000", " ", "", 0));
+    }
+
+    @Test
+    void discardsUnsignedForgedAndStaleInvalidations() throws Exception {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        UserCacheInvalidationChannel receiver = new UserCacheInvalidationChannel(
+                "127.0.0.1", 0, List.of(), "secret", clock::get, received::add);
+        List<InetSocketAddress> target = List.of(new InetSocketAddress("127.0.0.1", receiver.getPort()));
+        UserCacheInvalidationChannel forger = new UserCacheInvalidationChannel(
+                "127.0.0.1", 0, target, "other", clock::get, id -> { });
+        AtomicLong senderClock = new AtomicLong(clock.get() - UserCacheInvalidationChannel.MAX_AGE_MILLIS - 1);
+        UserCacheInvalidationChannel stale = new UserCacheInvalidationChannel(
+                "127.0.0.1", 0, target, "secret", senderClock::get, id -> { });
+        UserCacheInvalidationChannel sender = new UserCacheInvalidationChannel(
+                "127.0.0.1", 0, target, "secret", clock::get, id -> { });
+        try (DatagramSocket raw = new DatagramSocket()) {
+            byte[] bare = ByteBuffer.allocate(Long.BYTES).putLong(1L).array();
+            raw.send(new DatagramPacket(bare, bare.length, target.get(0)));
+            forger.publish(2L);
+            stale.publish(3L);
+            sender.publish(4L);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (receiver.getRejected() + received.size() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of(4L), received);
+            assertEquals(3, receiver.getRejected());
+        } finally {
+            receiver.close();
+            forger.close();
+            stale.close();
+            sender.close();
+        }
+    }
+
+    @Test
+    void parsesPeerList() {
+        List<InetSocketAddress> peers = UserCacheInvalidationChannel.parsePeers(" host-a:9000, 10.0.0.2:9001 ,");
+        assertEquals(2, peers.size());
+        assertEquals(9001, peers.get(1).getPort());
+        assertTrue(UserCacheInvalidationChannel.parsePeers("").isEmpty());
+    }
+
+    private void stub(User user) {
+        when(repository.findById(user.getId_user())).thenReturn(Optional.of(user));
+        when(repository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+    }
+
+    private static User user(Long id, String username) {
+        return new User(id, "Client " + username, username + "@mail.com", LocalDate.now(), 10.0, username, "hash", null, 0L);
+    }
+
+    private static int freePort() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.api.dto.UserPage;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+class UserListingTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long after;
+    private List<Long> expected;
+
+    @BeforeEach
+    void insertUsers() {
+        String prefix = "listing-" + System.nanoTime() + "-";
+        List<Long> inserted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setClientName("Client " + i);
+            user.setUsername(prefix + i);
+            user.setPassword("hash");
+            user.setBetMaxValue(10.0 * i);
+            inserted.add(userRepository.save(user).getId_user());
+        }
+        // O banco é compartilhado com outros testes e tem o admin com id fixo, então compara com a ordem real
+        after = inserted.get(0) - 1;
+        expected = userRepository.findAll().stream()
+                .map(User::getId_user)
+                .filter(id -> id > after)
+                .sorted()
+                .toList();
+    }
+
+    @Test
+    void pagesFollowTheCursorUntilTheEnd() {
+        List<Long> seen = new ArrayList<>();
+        Long cursor = after;
+        int pages = 0;
+        do {
+            UserPage page = userService.listPage(cursor, 2);
+            assertTrue(page.getItems().size() <= 2);
+            page.getItems().forEach(user -> seen.add(user.getId_user()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals((expected.size() + 1) / 2, pages);
+    }
+
+    @Test
+    void limitIsCappedAtTheMaximumPageSize() {
+        assertEquals(expected.size(), userService.listPage(after, 100_000).getItems().size());
+        assertEquals(expected.size(), userService.listPage(after, null).getItems().size());
+        assertNull(userService.listPage(after, null).getNextCursor());
+    }
+
+    @Test
+    void streamsOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userService.streamAll(after, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(expected.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            User user = objectMapper.readValue(lines[i], User.class);
+            assertEquals(expected.get(i), user.getId_user());
+        }
+        User first = objectMapper.readValue(lines[0], User.class);
+        assertEquals("Client 0", first.getClientName());
+        assertEquals(0.0, first.getBetMaxValue());
+    }
+
+    @Test
+    void emptyStreamWritesNothing() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userService.streamAll(expected.get(expected.size() - 1), out);
+        assertEquals(0, out.size());
+    }
+}
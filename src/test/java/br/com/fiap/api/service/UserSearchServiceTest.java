@@ -0,0 +1,106 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.fiap.api.dto.UserSearchPage;
+import br.com.fiap.api.dto.UserSummary;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+class UserSearchServiceTest {
+
+    @Autowired
+    private UserSearchService searchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String tag;
+
+    @BeforeEach
+    void insertUsers() {
+        tag = "s" + System.nanoTime();
+        save("Maria " + tag + " B", tag + "_maria", tag + "maria@mail.com");
+        save("MARIA " + tag + " A", tag + "xmaria", tag + "other@mail.com");
+        save("maria " + tag + " C", tag + "_mario", tag + "mario@mail.com");
+        save("Joao " + tag, tag + "_joao", tag + "joao@mail.com");
+    }
+
+    @Test
+    void findsByExactEmail() {
+        UserSearchPage page = searchService.search(tag + "maria@mail.com", null, null, null, null);
+        assertEquals(List.of(tag + "_maria"), usernames(page.getItems()));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void pagesThroughUsernamePrefixInUsernameOrder() {
+        List<String> seen = collect(after -> searchService.search(null, tag + "_mar", null, after, 1));
+        // "_" é literal: xmaria não entra
+        assertEquals(List.of(tag + "_maria", tag + "_mario"), seen);
+    }
+
+    @Test
+    void pagesThroughClientNamePrefixIgnoringCase() {
+        List<String> seen = collect(after -> searchService.search(null, null, "mArIa " + tag, after, 2));
+        assertEquals(List.of(tag + "xmaria", tag + "_maria", tag + "_mario"), seen);
+    }
+
+    @Test
+    void requiresExactlyOneCriterion() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("a@b.com", "a", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(null, "a", null, "x:y", null));
+    }
+
+    @Test
+    void searchesUseTheIndexes() {
+        assertTrue(plan("WHERE email = 'x'").contains("IDX_USERS_EMAIL"));
+        assertTrue(plan("WHERE client_name_lower LIKE 'mar%'").contains("IDX_USERS_CLIENT_NAME_LOWER"));
+        assertTrue(plan("WHERE username LIKE 'mar%'").contains("USERNAME >="));
+    }
+
+    private String plan(String where) {
+        return jdbcTemplate.queryForObject("EXPLAIN SELECT id_user FROM users " + where, String.class).toUpperCase();
+    }
+
+    private List<String> collect(java.util.function.Function<String, UserSearchPage> search) {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserSearchPage page = search.apply(cursor);
+            seen.addAll(usernames(page.getItems()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private static List<String> usernames(List<UserSummary> items) {
+        return items.stream().map(UserSummary::getUsername).toList();
+    }
+
+    private void save(String name, String username, String email) {
+        User user = new User();
+        user.setClientName(name);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("hash");
+        userRepository.save(user);
+    }
+}
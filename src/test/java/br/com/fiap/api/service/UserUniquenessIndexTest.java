@@ -0,0 +1,87 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.fiap.api.dto.UserCreateDTO;
+import br.com.fiap.api.exception.DuplicateUserException;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import br.com.fiap.api.vo.EmailVO;
+import br.com.fiap.api.vo.PasswordVO;
+import br.com.fiap.api.vo.UsernameVO;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+class UserUniquenessIndexTest {
+
+    @Autowired
+    private UserUniquenessIndex userUniquenessIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void aDeleteBeforeTheRebuildOnlyRemovesFromTheFiltersItSaw() throws Exception {
+        String username = "reused-" + System.nanoTime();
+        save(username);
+        while (!userUniquenessIndex.isLoaded()) {
+            Thread.sleep(10);
+        }
+        userUniquenessIndex.rebuild();
+
+        // DELETE, e o username volta a ser usado antes da carga seguinte
+        UserUniquenessIndex.Filters before = userUniquenessIndex.current();
+        jdbcTemplate.update("DELETE FROM users WHERE username = ?", username);
+        save(username);
+        userUniquenessIndex.rebuild();
+        assertNotSame(before, userUniquenessIndex.current());
+
+        // Os filtros novos têm o username uma vez só (o da linha nova); não podem perdê-lo
+        userUniquenessIndex.remove(before, username, username + "@mail.com");
+
+        assertEquals(List.of(username), userUniquenessIndex.likelyUsernames(List.of(username)));
+    }
+
+    @Test
+    void anEmailMissingFromTheFiltersIsStillRejectedByTheUniqueIndex() throws Exception {
+        while (!userUniquenessIndex.isLoaded()) {
+            Thread.sleep(10);
+        }
+        // Cadastro de outra instância: está no banco, mas não nos filtros desta
+        String other = "other-instance-" + System.nanoTime();
+        jdbcTemplate.update("INSERT INTO users (id_user, client_name, email, username, password) VALUES (?, ?, ?, ?, ?)",
+                -System.nanoTime(), "Other", other + "@mail.com", other, "hash");
+
+        UserCreateDTO dto = new UserCreateDTO();
+        dto.setClientName("Duplicate");
+        dto.setUsername(new UsernameVO("dup-" + System.nanoTime()));
+        dto.setEmail(new EmailVO(other + "@mail.com"));
+        dto.setPassword(new PasswordVO("Senha@123"));
+        DuplicateUserException e = assertThrows(DuplicateUserException.class, () -> userService.createUser(dto));
+        assertEquals("Email already in use", e.getMessage());
+    }
+
+    private void save(String username) {
+        User user = new User();
+        user.setClientName("Reused");
+        user.setUsername(username);
+        user.setEmail(username + "@mail.com");
+        user.setPassword("hash");
+        user.setBetMaxValue(10.0);
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.fiap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import br.com.fiap.api.dto.UserUpdateDTO;
+import br.com.fiap.api.exception.DuplicateUserException;
+import br.com.fiap.api.model.User;
+import br.com.fiap.api.repository.UserRepository;
+import br.com.fiap.api.vo.EmailVO;
+
+@SpringBootTest(properties = "logs.dir=target/test-logs")
+class UserUpdateTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void insertUser() {
+        User created = new User();
+        created.setClientName("Original");
+        String username = "update-" + System.nanoTime();
+        created.setEmail(username + "@mail.com");
+        created.setUsername(username);
+        created.setPassword("hash");
+        created.setBetMaxValue(10.0);
+        created.setUserPixKey("pix");
+        user = userRepository.save(created);
+    }
+
+    @Test
+    void updatesOnlyTheInformedFieldsAndBumpsTheVersion() {
+        // Deixa o usuário no cache para conferir a invalidação
+        assertEquals(10.0, userService.searchForId(user.getId_user()).orElseThrow().getBetMaxValue());
+
+        UserUpdateDTO dto = new UserUpdateDTO();
+        dto.setBetMaxValue(250.0);
+        assertTrue(userService.updateUser(user.getId_user(), dto));
+
+        User updated = userService.searchForId(user.getId_user()).orElseThrow();
+        assertEquals(250.0, updated.getBetMaxValue());
+        assertEquals("Original", updated.getClientName());
+        assertEquals(user.getEmail(), updated.getEmail());
+        assertEquals("pix", updated.getUserPixKey());
+        assertEquals(user.getVersion() + 1, updated.getVersion());
+    }
+
+    @Test
+    void checksTheVersionWhenInformed() {
+        UserUpdateDTO dto = new UserUpdateDTO();
+        String email = "new-" + user.getUsername() + "@mail.com";
+        dto.setEmail(new EmailVO(email));
+        dto.setVersion(user.getVersion());
+        assertTrue(userService.updateUser(user.getId_user(), dto));
+
+        // Mesma versão de novo: a linha já mudou
+        assertThrows(OptimisticLockingFailureException.class, () -> userService.updateUser(user.getId_user(), dto));
+        assertEquals(email, userRepository.findById(user.getId_user()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void rejectsAnEmailInUseByAnotherUser() {
+        UserUpdateDTO dto = new UserUpdateDTO();
+        dto.setEmail(new EmailVO("admin@dominio.com"));
+        assertThrows(DuplicateUserException.class, () -> userService.updateUser(user.getId_user(), dto));
+        assertEquals(user.getVersion(), userRepository.findById(user.getId_user()).orElseThrow().getVersion());
+
+        // O próprio e-mail não conta como duplicado
+        dto.setEmail(new EmailVO(user.getEmail()));
+        assertTrue(userService.updateUser(user.getId_user(), dto));
+    }
+
+    @Test
+    void returnsFalseForUnknownUser() {
+        UserUpdateDTO dto = new UserUpdateDTO();
+        dto.setBetMaxValue(1.0);
+        assertFalse(userService.updateUser(Long.MAX_VALUE, dto));
+        assertFalse(userService.updateUser(Long.MAX_VALUE, new UserUpdateDTO()));
+        assertTrue(userService.updateUser(user.getId_user(), new UserUpdateDTO()));
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        UserUpdateDTO dto = new UserUpdateDTO();
+        dto.setBetMaxValue(-1.0);
+        assertThrows(IllegalArgumentException.class, () -> userService.updateUser(user.getId_user(), dto));
+
+        UserUpdateDTO blankName = new UserUpdateDTO();
+        blankName.setClientName(" ");
+        assertThrows(IllegalArgumentException.class, () -> userService.updateUser(user.getId_user(), blankName));
+    }
+}